@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -29,7 +30,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class FoodManagementSystemApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(FoodManagementSystemApplication.class, args);
+		SpringApplication application = new SpringApplication(FoodManagementSystemApplication.class);
+		// Keeps startup steps (bean creation, cache warm-up, ...) with their durations for inspection
+		application.setApplicationStartup(new BufferingApplicationStartup(2048));
+		application.run(args);
 	}
 
 }
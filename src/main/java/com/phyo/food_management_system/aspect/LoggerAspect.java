@@ -7,14 +7,17 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
+// Per-call trace logging, for debugging only: latency is recorded by MetricsAspect.
+// Enable with app.logging.method-trace.enabled=true and DEBUG for this logger.
 @Aspect
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "app.logging.method-trace.enabled", havingValue = "true")
 public class LoggerAspect {
 
     // Target only service, controller, and repository layers
@@ -25,18 +28,20 @@ public class LoggerAspect {
 
     @Around("applicationPackagePointcut()")
     public Object log(ProceedingJoinPoint joinPoint) throws Throwable {
-        log.info("{} method execution start", joinPoint.getSignature());
-        Instant start = Instant.now();
+        if (!log.isDebugEnabled()) {
+            return joinPoint.proceed();
+        }
+        log.debug("{} method execution start", joinPoint.getSignature());
+        long start = System.nanoTime();
         Object returnObj = joinPoint.proceed();
-        Instant finish = Instant.now();
-        long timeElapsed = Duration.between(start, finish).toMillis();
-        log.info("Time took to execute {} method is: {}", joinPoint.getSignature(), timeElapsed);
-        log.info("{} method execution end", joinPoint.getSignature());
+        long timeElapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.debug("Time took to execute {} method is: {}", joinPoint.getSignature(), timeElapsed);
+        log.debug("{} method execution end", joinPoint.getSignature());
         return returnObj;
     }
 
     @AfterThrowing(pointcut = "applicationPackagePointcut()", throwing = "ex")
     public void logException(JoinPoint joinPoint, Exception ex) {
-        log.error("{} An exception happened due to: {}", joinPoint.getSignature(), ex.getMessage());
+        log.debug("{} An exception happened due to: {}", joinPoint.getSignature(), ex.getMessage());
     }
 }
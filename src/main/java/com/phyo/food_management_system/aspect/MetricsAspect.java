@@ -0,0 +1,103 @@
+package com.phyo.food_management_system.aspect;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import com.phyo.food_management_system.repository.RepositoryCallSite;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Records every controller, service and repository call in the "app.method" timer, tagged with
+// layer, class, method and exception ("none" on success). Percentiles and histogram buckets are
+// configured under management.metrics.distribution in application.yaml.
+// Repository calls also set the RepositoryCallSite that DynamoDB client metrics are tagged with.
+@Aspect
+@Component
+public class MetricsAspect {
+
+    public static final String TIMER_NAME = "app.method";
+
+    private final MeterRegistry meterRegistry;
+    // One provider per method, so the hot path does not rebuild tags on every call
+    private final Map<Method, Meter.MeterProvider<Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<Method, String> callSites = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("within(com.phyo.food_management_system.controller..*)")
+    public void controllerLayer() {}
+
+    @Pointcut("within(com.phyo.food_management_system.service..*)")
+    public void serviceLayer() {}
+
+    @Pointcut("within(com.phyo.food_management_system.repository..*)")
+    public void repositoryLayer() {}
+
+    @Around("controllerLayer() || serviceLayer() || repositoryLayer()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timerFor(joinPoint).withTag("exception", exception)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("repositoryLayer()")
+    public Object markRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String callSite = callSites.computeIfAbsent(method,
+                key -> joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + key.getName());
+        boolean entered = RepositoryCallSite.enter(callSite);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (entered) {
+                RepositoryCallSite.exit();
+            }
+        }
+    }
+
+    private Meter.MeterProvider<Timer> timerFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(method, key -> {
+            Class<?> type = joinPoint.getSignature().getDeclaringType();
+            return Timer.builder(TIMER_NAME)
+                    .description("Execution time of controller, service and repository methods")
+                    .tags(Tags.of(
+                            "layer", layerOf(type),
+                            "class", type.getSimpleName(),
+                            "method", key.getName()))
+                    .withRegistry(meterRegistry);
+        });
+    }
+
+    private static String layerOf(Class<?> type) {
+        String packageName = type.getPackageName();
+        if (packageName.contains(".controller")) {
+            return "controller";
+        }
+        if (packageName.contains(".repository")) {
+            return "repository";
+        }
+        return "service";
+    }
+}
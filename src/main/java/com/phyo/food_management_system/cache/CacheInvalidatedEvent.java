@@ -0,0 +1,6 @@
+package com.phyo.food_management_system.cache;
+
+// Published on this node when another node wrote to or evicted from a two-level cache.
+// key is null when the whole cache was cleared.
+public record CacheInvalidatedEvent(String cacheName, String key) {
+}
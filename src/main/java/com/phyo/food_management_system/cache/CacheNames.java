@@ -0,0 +1,27 @@
+package com.phyo.food_management_system.cache;
+
+// One cache per query shape, so a key can only ever hold one kind of value.
+// Mutations write the single-entity caches through and evict the list caches derived from them.
+public final class CacheNames {
+
+    // menuId -> MenuResponseDto
+    public static final String MENU_ITEM = "menuItem";
+    // restaurantId -> List<MenuResponseDto>
+    public static final String RESTAURANT_MENU = "restaurantMenu";
+    // restaurantId -> RestaurantResponseDto
+    public static final String RESTAURANT = "restaurant";
+    // ALL_KEY -> List<RestaurantResponseDto>
+    public static final String RESTAURANT_LIST = "restaurantList";
+    // orderId -> OrderResponseDto
+    public static final String ORDER = "order";
+    // userId -> List<OrderResponseDto>
+    public static final String USER_ORDERS = "userOrders";
+    // "<userId>#<Idempotency-Key>#<request hash>" -> OrderResponseDto first returned for that key
+    public static final String IDEMPOTENT_ORDER = "idempotentOrder";
+
+    // Key of the single entry of RESTAURANT_LIST
+    public static final String ALL_KEY = "all";
+
+    private CacheNames() {
+    }
+}
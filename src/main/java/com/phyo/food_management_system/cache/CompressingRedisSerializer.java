@@ -0,0 +1,127 @@
+package com.phyo.food_management_system.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Compresses the bytes of the wrapped serializer once they reach the threshold; smaller values are
+// stored as they are. Reading looks at the header rather than the configuration, so gzip, LZ4 and
+// uncompressed entries all stay readable when the algorithm or threshold of a cache is changed.
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    public enum Algorithm {
+        NONE, GZIP, LZ4
+    }
+
+    // "LZ4" + format version, followed by the uncompressed length (int) and one LZ4 block.
+    // Cannot clash with the delegates' output: JSON starts with '{' / '[' / '"', Smile with ":)\n".
+    private static final byte[] LZ4_MAGIC = {'L', 'Z', '4', 1};
+    private static final int LZ4_HEADER_LENGTH = LZ4_MAGIC.length + Integer.BYTES;
+
+    private static final LZ4Compressor lz4Compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor lz4Decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final RedisSerializer<Object> delegate;
+    private final Algorithm algorithm;
+    private final int threshold;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, Algorithm algorithm, int threshold) {
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null || raw.length < threshold) {
+            return raw;
+        }
+        return switch (algorithm) {
+            case NONE -> raw;
+            case GZIP -> gzip(raw);
+            case LZ4 -> lz4(raw);
+        };
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null) {
+            return delegate.deserialize(null);
+        }
+        if (isGzipped(bytes)) {
+            return delegate.deserialize(gunzip(bytes));
+        }
+        if (isLz4(bytes)) {
+            return delegate.deserialize(unlz4(bytes));
+        }
+        return delegate.deserialize(bytes);
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new SerializationException("Could not compress cache value", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new SerializationException("Could not decompress cache value", e);
+        }
+    }
+
+    private static byte[] lz4(byte[] raw) {
+        byte[] out = new byte[LZ4_HEADER_LENGTH + lz4Compressor.maxCompressedLength(raw.length)];
+        ByteBuffer.wrap(out).put(LZ4_MAGIC).putInt(raw.length);
+        int compressedLength = lz4Compressor.compress(raw, 0, raw.length, out, LZ4_HEADER_LENGTH);
+        return Arrays.copyOf(out, LZ4_HEADER_LENGTH + compressedLength);
+    }
+
+    private static byte[] unlz4(byte[] bytes) {
+        int length = ByteBuffer.wrap(bytes, LZ4_MAGIC.length, Integer.BYTES).getInt();
+        if (length < 0) {
+            throw new SerializationException("Corrupt LZ4 cache value");
+        }
+        try {
+            byte[] raw = new byte[length];
+            lz4Decompressor.decompress(bytes, LZ4_HEADER_LENGTH, raw, 0, length);
+            return raw;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decompress cache value", e);
+        }
+    }
+
+    private static boolean isGzipped(byte[] bytes) {
+        return bytes.length > 2
+                && bytes[0] == (byte) GZIPInputStream.GZIP_MAGIC
+                && bytes[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    private static boolean isLz4(byte[] bytes) {
+        if (bytes.length < LZ4_HEADER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LZ4_MAGIC.length; i++) {
+            if (bytes[i] != LZ4_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
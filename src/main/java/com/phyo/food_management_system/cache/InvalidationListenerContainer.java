@@ -0,0 +1,54 @@
+package com.phyo.food_management_system.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Listener container for the L1 invalidation channel that does not fail application startup when
+// Redis is unreachable (the app boots without Redis today); it keeps retrying the subscription in
+// the background. Until it is subscribed, L1 entries are only bounded by their TTL.
+@Slf4j
+public class InvalidationListenerContainer extends RedisMessageListenerContainer {
+
+    private final long retryIntervalMillis;
+    private volatile boolean active;
+    private int failedAttempts;
+
+    public InvalidationListenerContainer(long retryIntervalMillis) {
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    @Override
+    public void start() {
+        active = true;
+        subscribe();
+    }
+
+    @Override
+    public void stop() {
+        active = false;
+        super.stop();
+    }
+
+    private synchronized void subscribe() {
+        if (!active || isListening()) {
+            return;
+        }
+        try {
+            super.start();
+            if (failedAttempts > 0) {
+                log.info("Subscribed to {} after {} failed attempts", TwoLevelCacheManager.INVALIDATION_CHANNEL, failedAttempts);
+            }
+            failedAttempts = 0;
+        } catch (RuntimeException e) {
+            if (failedAttempts++ == 0) {
+                log.warn("Could not subscribe to {}, retrying every {} ms : {}",
+                        TwoLevelCacheManager.INVALIDATION_CHANNEL, retryIntervalMillis, e.getMessage());
+            }
+            super.stop();   // reset the container so the next start() really subscribes
+            CompletableFuture.delayedExecutor(retryIntervalMillis, TimeUnit.MILLISECONDS).execute(this::subscribe);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.phyo.food_management_system.cache;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Cache decorator that runs every access in a "cache.access" observation: a span named
+// "cache <operation> <cache>" (with the key as a span-only attribute) plus a timer tagged
+// with cache, operation and result (hit / miss for reads, none for writes).
+// A loader invoked on a miss runs inside the span, so its DynamoDB calls show up as children.
+public class ObservedCache implements Cache {
+
+    public static final String OBSERVATION_NAME = "cache.access";
+
+    private final Cache delegate;
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedCache(Cache delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return observe("get", key, observation -> {
+            ValueWrapper value = delegate.get(key);
+            result(observation, value != null);
+            return value;
+        });
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return observe("get", key, observation -> {
+            T value = delegate.get(key, type);
+            result(observation, value != null);
+            return value;
+        });
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return observe("get", key, observation -> {
+            result(observation, true);
+            return delegate.get(key, () -> {
+                result(observation, false);
+                return valueLoader.call();
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        observe("put", key, observation -> {
+            delegate.put(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return observe("putIfAbsent", key, observation -> delegate.putIfAbsent(key, value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        observe("evict", key, observation -> {
+            delegate.evict(key);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return observe("evict", key, observation -> delegate.evictIfPresent(key));
+    }
+
+    @Override
+    public void clear() {
+        observe("clear", null, observation -> {
+            delegate.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean invalidate() {
+        return observe("clear", null, observation -> delegate.invalidate());
+    }
+
+    private <T> T observe(String operation, Object key, Function<Observation, T> action) {
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("cache " + operation + " " + getName())
+                .lowCardinalityKeyValue("cache", getName())
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("result", "none");
+        if (key != null) {
+            observation.highCardinalityKeyValue("key", String.valueOf(key));
+        }
+        return observation.observe(() -> action.apply(observation));
+    }
+
+    private static void result(Observation observation, boolean hit) {
+        observation.lowCardinalityKeyValue("result", hit ? "hit" : "miss");
+    }
+}
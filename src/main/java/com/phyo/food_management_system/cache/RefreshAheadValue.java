@@ -0,0 +1,95 @@
+package com.phyo.food_management_system.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// A value kept in memory and always served from there (stale-while-revalidate): reloads run in the
+// background and swap the snapshot atomically, so readers never wait on the loader except for the
+// very first load. A refresh requested while one is running is run again afterwards, so a change
+// notification is never swallowed by a reload that started before the change.
+@Slf4j
+public class RefreshAheadValue<T> {
+
+    private record Snapshot<T>(T value, long loadedAtNanos) {
+    }
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final Executor executor;
+    private final long maxAgeNanos;
+    private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+
+    // Reads of a snapshot older than maxAge trigger a background refresh (still serving the old one)
+    public RefreshAheadValue(String name, Supplier<T> loader, Executor executor, Duration maxAge) {
+        this.name = name;
+        this.loader = loader;
+        this.executor = executor;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public T get() {
+        Snapshot<T> snapshot = current.get();
+        if (snapshot == null) {
+            return loadFirst();
+        }
+        if (System.nanoTime() - snapshot.loadedAtNanos() > maxAgeNanos) {
+            refreshAsync();
+        }
+        return snapshot.value();
+    }
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    // Loads on the calling thread and replaces the snapshot; exceptions reach the caller
+    public T refreshNow() {
+        long start = System.nanoTime();
+        T value = loader.get();
+        current.set(new Snapshot<>(value, System.nanoTime()));
+        log.debug("Refreshed {} in {} ms", name, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return value;
+    }
+
+    public void refreshAsync() {
+        refreshRequested.set(true);
+        if (!refreshing.compareAndSet(false, true)) {
+            return;     // the running refresh picks the request up when it finishes
+        }
+        try {
+            executor.execute(this::drainRefreshRequests);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+            log.warn("Refresh of {} skipped: executor is saturated", name);
+        }
+    }
+
+    private void drainRefreshRequests() {
+        try {
+            while (refreshRequested.getAndSet(false)) {
+                refreshNow();
+            }
+        } catch (RuntimeException e) {
+            // keep serving the previous snapshot; the next read past maxAge or schedule tick retries
+            log.warn("Refresh of {} failed : {}", name, e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+        if (refreshRequested.get()) {
+            refreshAsync();
+        }
+    }
+
+    private synchronized T loadFirst() {
+        Snapshot<T> snapshot = current.get();
+        return snapshot != null ? snapshot.value() : refreshNow();
+    }
+}
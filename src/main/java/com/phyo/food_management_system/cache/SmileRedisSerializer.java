@@ -0,0 +1,51 @@
+package com.phyo.food_management_system.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+// Same typed object model as the JSON cache serializer, written as Smile (binary JSON) instead:
+// numbers are binary, and repeated property names and short strings (e.g. the @class type hints of
+// every element of a cached list) are written once and back-referenced afterwards.
+// Values without the Smile header are read as JSON, so a cache can be switched from json to smile
+// without flushing it.
+public class SmileRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final RedisSerializer<Object> smile;
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+
+    public SmileRedisSerializer() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+
+        this.smile = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(new ObjectMapper(smileFactory))
+                .defaultTyping(true)
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return smile.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < SMILE_HEADER.length) {
+            return json.deserialize(bytes);
+        }
+        for (int i = 0; i < SMILE_HEADER.length; i++) {
+            if (bytes[i] != SMILE_HEADER[i]) {
+                return json.deserialize(bytes);
+            }
+        }
+        return smile.deserialize(bytes);
+    }
+}
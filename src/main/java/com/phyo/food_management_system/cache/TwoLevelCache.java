@@ -0,0 +1,306 @@
+package com.phyo.food_management_system.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Spring Cache with an in-process Caffeine L1 in front of the shared Redis L2.
+// Reads are served from L1 when possible and fill it on the way back from Redis;
+// writes go to Redis first, then L1, then every other node is told to drop its L1 copy.
+// Only real writes (put = @CachePut / write-through, evict, clear) are broadcast: miss fills come in
+// through get(key, loader), i.e. @Cacheable(sync = true), and never evict the other nodes' copies.
+// Caches in front of this one must therefore use sync = true, a plain @Cacheable fills through put().
+// L1 is keyed by the key's string form, the same form RedisCache uses for its keys.
+//
+// @Cacheable(sync = true) lookups (get with a loader) are single-flight per key on this node:
+// the first miss runs the loader, concurrent misses of the same key wait for its result.
+// With an early-refresh beta > 0 they also refresh hot entries shortly before their Redis entry expires
+// (probabilistic early expiration, "XFetch"): the chance grows as expiry nears and with the time
+// loads of this cache take, so one request reloads in the background instead of every node at once.
+// The Redis expiry is what matters (when it passes, every node goes to the database), so each node
+// tracks it per key: from its own writes, and from the key's PTTL when it fills L1 from Redis.
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    // l2Ttl is the Redis TTL of the cache; earlyRefreshBeta 0 disables early refresh
+    public record Settings(Duration l1Ttl, long l1MaxSize, Duration l2Ttl, double earlyRefreshBeta) {
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final TwoLevelCacheManager manager;
+    private final long l2TtlNanos;
+    private final double earlyRefreshBeta;
+    private final Executor refreshExecutor;
+    // System.nanoTime() at which the Redis entry of a key expires, as far as this node knows
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> l2Expiries;
+    // Moving average of this node's load times for the cache, 0 until the first load
+    private volatile long loadNanos;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    TwoLevelCache(String name, Settings settings, Cache l2, TwoLevelCacheManager manager, Executor refreshExecutor) {
+        this.name = name;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(settings.l1MaxSize())
+                .expireAfterWrite(settings.l1Ttl())
+                .recordStats()
+                .build();
+        this.l2 = l2;
+        this.manager = manager;
+        this.l2TtlNanos = settings.l2Ttl().toNanos();
+        this.earlyRefreshBeta = settings.earlyRefreshBeta();
+        this.refreshExecutor = refreshExecutor;
+        this.l2Expiries = Caffeine.newBuilder()
+                .maximumSize(settings.l1MaxSize())
+                .expireAfterWrite(settings.l2Ttl())
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String l1Key = l1Key(key);
+        Object value = l1.getIfPresent(l1Key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            fillFromL2(key, l1Key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String l1Key = l1Key(key);
+        ValueWrapper cached = get(key);
+        if (cached != null && cached.get() != null) {
+            if (shouldRefreshEarly(l1Key)) {
+                refreshInBackground(key, l1Key, valueLoader, cached.get());
+            }
+            return (T) cached.get();
+        }
+        return (T) loadOnce(key, l1Key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        String l1Key = l1Key(key);
+        if (value != null) {
+            l1.put(l1Key, value);
+            l2Expiries.put(l1Key, System.nanoTime() + l2TtlNanos);
+        } else {
+            l1.invalidate(l1Key);
+            l2Expiries.invalidate(l1Key);
+        }
+        manager.publishInvalidation(name, l1Key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        // Whichever value won in Redis is the one L1 must not contradict
+        String l1Key = l1Key(key);
+        l1.invalidate(l1Key);
+        l2Expiries.invalidate(l1Key);
+        manager.publishInvalidation(name, l1Key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        String l1Key = l1Key(key);
+        l1.invalidate(l1Key);
+        l2Expiries.invalidate(l1Key);
+        manager.publishInvalidation(name, l1Key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = l2.evictIfPresent(key);
+        String l1Key = l1Key(key);
+        l1.invalidate(l1Key);
+        l2Expiries.invalidate(l1Key);
+        manager.publishInvalidation(name, l1Key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        l2Expiries.invalidateAll();
+        manager.publishInvalidation(name, null);
+    }
+
+    // Called for invalidations published by other nodes; L2 is already up to date
+    void invalidateLocal(String l1Key) {
+        if (l1Key == null) {
+            l1.invalidateAll();
+            l2Expiries.invalidateAll();
+        } else {
+            l1.invalidate(l1Key);
+            l2Expiries.invalidate(l1Key);
+        }
+    }
+
+    // Miss on both levels: the first caller loads, concurrent callers for the same key wait for it
+    private Object loadOnce(Object key, String l1Key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(l1Key, flight);
+        if (running != null) {
+            return await(key, valueLoader, running);
+        }
+
+        try {
+            // The previous flight (or another node) may have filled Redis in the meantime
+            ValueWrapper wrapper = l2.get(key);
+            Object value;
+            if (wrapper != null && wrapper.get() != null) {
+                value = wrapper.get();
+                fillFromL2(key, l1Key, value);
+            } else {
+                value = load(key, l1Key, valueLoader);
+                if (value != null) {
+                    l1.put(l1Key, value);
+                }
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(l1Key, flight);
+        }
+    }
+
+    private Object load(Object key, String l1Key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        long now = System.nanoTime();
+        long previous = loadNanos;
+        loadNanos = previous == 0 ? now - start : (previous * 7 + (now - start)) / 8;
+        if (value != null) {
+            l2.put(key, value);
+            l2Expiries.put(l1Key, now + l2TtlNanos);
+        }
+        return value;
+    }
+
+    // Caches a value read from Redis in L1 and, when early refresh is on, learns when its Redis entry expires
+    private void fillFromL2(Object key, String l1Key, Object value) {
+        l1.put(l1Key, value);
+        if (earlyRefreshBeta > 0) {
+            long remainingNanos = manager.remainingTtlNanos(l2, key);
+            if (remainingNanos > 0) {
+                l2Expiries.put(l1Key, System.nanoTime() + remainingNanos);
+            } else {
+                l2Expiries.invalidate(l1Key);
+            }
+        }
+    }
+
+    private static Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;    // the leader's ValueRetrievalException, unwrapped by the cache aspect
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    // XFetch: refresh when now + loadTime * beta * -ln(random) reaches the Redis expiry
+    private boolean shouldRefreshEarly(String l1Key) {
+        long averageLoadNanos = loadNanos;
+        if (earlyRefreshBeta <= 0 || averageLoadNanos == 0) {
+            return false;   // off, or no load timed on this node yet
+        }
+        Long expiresAtNanos = l2Expiries.getIfPresent(l1Key);
+        if (expiresAtNanos == null) {
+            return false;   // Redis expiry unknown (no TTL, or Redis was unreachable)
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();   // (0, 1]
+        double gapNanos = averageLoadNanos * earlyRefreshBeta * -Math.log(random);
+        return System.nanoTime() + gapNanos >= expiresAtNanos;
+    }
+
+    // Reloads on the refresh executor while callers keep getting the current value
+    private void refreshInBackground(Object key, String l1Key, Callable<?> valueLoader, Object currentValue) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(l1Key, flight) != null) {
+            return;     // already loading or refreshing
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = load(key, l1Key, valueLoader);
+                    if (value != null) {
+                        l1.put(l1Key, value);
+                        manager.publishInvalidation(name, l1Key);
+                    }
+                    flight.complete(value != null ? value : currentValue);
+                } catch (RuntimeException e) {
+                    log.warn("Early refresh of {}::{} failed : {}", name, l1Key, e.getMessage());
+                    flight.complete(currentValue);
+                } finally {
+                    inFlight.remove(l1Key, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // refresh pool saturated: skip, the entry is reloaded on expiry at the latest
+            inFlight.remove(l1Key, flight);
+            flight.complete(currentValue);
+        }
+    }
+
+    private static String l1Key(Object key) {
+        return String.valueOf(key);
+    }
+}
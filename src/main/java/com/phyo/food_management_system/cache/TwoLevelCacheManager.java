@@ -0,0 +1,140 @@
+package com.phyo.food_management_system.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// CacheManager that puts a bounded local L1 in front of the caches of the Redis cache manager.
+// Caches the settings resolver returns null for are handed out as the plain Redis cache.
+// Puts and evictions are broadcast on a Redis pub/sub channel so the other nodes drop their L1 copy;
+// the L1 TTL bounds how long a node can serve a stale value if such a message is lost.
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener, ApplicationEventPublisherAware, MeterBinder {
+
+    public static final String INVALIDATION_CHANNEL = "cache:l1-invalidation";
+
+    // nodeId|cacheName|key  (key omitted for clear())
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Function<String, TwoLevelCache.Settings> settingsResolver;
+    private final Executor refreshExecutor;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private ApplicationEventPublisher eventPublisher;
+    private volatile MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(CacheManager redisCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                Function<String, TwoLevelCache.Settings> settingsResolver,
+                                Executor refreshExecutor) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.settingsResolver = settingsResolver;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.eventPublisher = applicationEventPublisher;
+    }
+
+    // L1 hit/miss/eviction metrics as cache_*{cache="<name>",level="l1"}; caches created later are bound on creation
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        caches.values().forEach(this::bindL1Metrics);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    private Cache createCache(String name) {
+        Cache l2 = redisCacheManager.getCache(name);
+        TwoLevelCache.Settings settings = settingsResolver.apply(name);
+        if (l2 == null || settings == null) {
+            return l2;
+        }
+        TwoLevelCache cache = new TwoLevelCache(name, settings, l2, this, refreshExecutor);
+        bindL1Metrics(cache);
+        return cache;
+    }
+
+    private void bindL1Metrics(Cache cache) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null && cache instanceof TwoLevelCache twoLevelCache) {
+            CaffeineCacheMetrics.monitor(registry, twoLevelCache.getNativeCache(), cache.getName(), "level", "l1");
+        }
+    }
+
+    // Also used by node-local caches outside this manager (e.g. PrincipalCache): the other nodes
+    // receive the message as a CacheInvalidatedEvent
+    public void publishInvalidation(String cacheName, String key) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            // the write itself already reached Redis; other nodes fall back to the L1 TTL
+            log.warn("Could not publish L1 invalidation for cache {} : {}", cacheName, e.getMessage());
+        }
+    }
+
+    // Time left until the Redis entry of a key expires, or -1 when unknown (missing, no TTL, Redis down)
+    long remainingTtlNanos(Cache l2, Object key) {
+        if (!(l2 instanceof RedisCache redisCache)) {
+            return -1;
+        }
+        String redisKey = redisCache.getCacheConfiguration().getKeyPrefixFor(l2.getName()) + key;
+        try {
+            Long millis = redisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+            return millis != null && millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : -1;
+        } catch (Exception e) {
+            log.debug("Could not read the TTL of {} : {}", redisKey, e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + SEPARATOR, 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;     // malformed, or our own write (L1 already updated)
+        }
+
+        String key = parts[2].isEmpty() ? null : parts[2];
+        if (caches.get(parts[1]) instanceof TwoLevelCache cache) {
+            cache.invalidateLocal(key);
+        }
+        // Lets in-memory views built from a cache (e.g. the restaurant catalogue) follow remote changes
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new CacheInvalidatedEvent(parts[1], key));
+        }
+    }
+}
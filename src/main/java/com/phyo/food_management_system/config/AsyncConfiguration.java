@@ -1,12 +1,16 @@
 package com.phyo.food_management_system.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+// Every pool propagates the caller's observation/trace context (and any other registered
+// ThreadLocalAccessor) into its tasks, so async work shows up in the caller's trace.
 @Configuration
 @EnableAsync
 public class AsyncConfiguration {
@@ -14,6 +18,7 @@ public class AsyncConfiguration {
     @Bean("asyncTaskExecutor")
     public Executor asyncTaskExecutor(){
         ThreadPoolTaskExecutor taskExecutor=new ThreadPoolTaskExecutor();
+        taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
         taskExecutor.setCorePoolSize(4);
         taskExecutor.setQueueCapacity(150);
         taskExecutor.setMaxPoolSize(4);
@@ -21,4 +26,62 @@ public class AsyncConfiguration {
         taskExecutor.initialize();;
         return taskExecutor;
     }
+
+    // Bounded pool used by ParallelScanner: one task per scan segment
+    @Bean("parallelScanExecutor")
+    public ThreadPoolTaskExecutor parallelScanExecutor(
+            @Value("${aws.dynamodb.parallel-scan.threads:8}") int threads,
+            @Value("${aws.dynamodb.parallel-scan.executor-queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(queueCapacity);
+        taskExecutor.setThreadNamePrefix("ParallelScanThread-");
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    // ParallelScanner's pool for scans streamed to HTTP clients (the NDJSON order export), which drain
+    // at the client's pace; exports beyond the pool wait their turn in the queue
+    @Bean("exportScanExecutor")
+    public ThreadPoolTaskExecutor exportScanExecutor(
+            @Value("${aws.dynamodb.parallel-scan.export-threads:4}") int threads) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(64);
+        taskExecutor.setThreadNamePrefix("ExportScanThread-");
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    // Bounded pool the stuck-order sweep fans its conditional cancellations out on
+    @Bean("sweepTaskExecutor")
+    public ThreadPoolTaskExecutor sweepTaskExecutor(
+            @Value("${app.order.sweep.threads:4}") int threads) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(1000);
+        taskExecutor.setThreadNamePrefix("SweepTaskThread-");
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    // Small pool for early (XFetch) cache refreshes; a full queue just skips the refresh
+    @Bean("cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+            @Value("${app.cache.early-refresh.threads:2}") int threads) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setQueueCapacity(100);
+        taskExecutor.setThreadNamePrefix("CacheRefreshThread-");
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
 }
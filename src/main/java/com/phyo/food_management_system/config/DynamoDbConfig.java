@@ -5,10 +5,14 @@ import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.phyo.food_management_system.util.OrderItemsAttributeTransformer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,16 +39,24 @@ public class DynamoDbConfig {
     }
 
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
-        return AmazonDynamoDBClientBuilder.standard()
+    public AmazonDynamoDB amazonDynamoDB(ObjectProvider<RequestHandler2> requestHandlers) {
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
                 .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(awsDynamoDBEndPoint, region))
-                .withCredentials(awsCredentialsProvider())
-                .build();
+                .withCredentials(awsCredentialsProvider());
+        // DynamoDbRequestMetrics (latency, retries, throttles, consumed capacity) and DynamoDbTracing (spans)
+        builder.withRequestHandlers(requestHandlers.orderedStream().toArray(RequestHandler2[]::new));
+        return builder.build();
     }
 
     @Bean
-    public DynamoDBMapper mapper() {
-        return new DynamoDBMapper(amazonDynamoDB());
+    public OrderItemsAttributeTransformer orderItemsAttributeTransformer(
+            @Value("${app.order.items.write-format:json}") OrderItemsAttributeTransformer.WriteFormat itemsWriteFormat) {
+        return new OrderItemsAttributeTransformer(itemsWriteFormat);
+    }
+
+    @Bean
+    public DynamoDBMapper mapper(AmazonDynamoDB amazonDynamoDB, OrderItemsAttributeTransformer orderItemsAttributeTransformer) {
+        return new DynamoDBMapper(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT, orderItemsAttributeTransformer);
     }
 
 }
@@ -0,0 +1,278 @@
+package com.phyo.food_management_system.config;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.phyo.food_management_system.repository.RepositoryCallSite;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Client-level DynamoDB metrics, registered on the AmazonDynamoDB client in DynamoDbConfig.
+// Every request is tagged with operation, table and caller (the RepositoryCallSite that issued it):
+//   dynamodb.requests            timer, plus outcome (success or the AWS error code)
+//   dynamodb.retries             attempts after the first
+//   dynamodb.throttles           throttled attempts (ProvisionedThroughputExceeded, ThrottlingException, ...)
+//   dynamodb.consumed.capacity   capacity units per table / index, type = read, write or total
+// ReturnConsumedCapacity is switched on for requests that did not ask for it themselves.
+@Component
+@ConditionalOnProperty(name = "aws.dynamodb.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DynamoDbRequestMetrics extends RequestHandler2 {
+
+    private static final HandlerContextKey<Call> CALL = new HandlerContextKey<>("app.metrics.call");
+    private static final String NONE = "none";
+    private static final String MULTIPLE_TABLES = "multiple";
+
+    private final String returnConsumedCapacity;
+    private final Meter.MeterProvider<Timer> requests;
+    private final Meter.MeterProvider<Counter> retries;
+    private final Meter.MeterProvider<Counter> throttles;
+    private final Meter.MeterProvider<DistributionSummary> consumedCapacity;
+
+    public DynamoDbRequestMetrics(MeterRegistry meterRegistry,
+                                  @Value("${aws.dynamodb.metrics.return-consumed-capacity:INDEXES}")
+                                  ReturnConsumedCapacity returnConsumedCapacity) {
+        this.returnConsumedCapacity = returnConsumedCapacity == ReturnConsumedCapacity.NONE
+                ? null : returnConsumedCapacity.toString();
+        this.requests = Timer.builder("dynamodb.requests")
+                .description("DynamoDB request latency including retries")
+                .withRegistry(meterRegistry);
+        this.retries = Counter.builder("dynamodb.retries")
+                .description("DynamoDB attempts after the first one")
+                .withRegistry(meterRegistry);
+        this.throttles = Counter.builder("dynamodb.throttles")
+                .description("DynamoDB attempts rejected by throttling")
+                .withRegistry(meterRegistry);
+        this.consumedCapacity = DistributionSummary.builder("dynamodb.consumed.capacity")
+                .description("Capacity units consumed per request")
+                .baseUnit("capacity.units")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (returnConsumedCapacity != null) {
+            requestConsumedCapacity(request);
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        // Still on the calling thread here: the sync client runs the whole execution on it
+        request.addHandlerContext(CALL, new Call(
+                request.getHandlerContext(HandlerContextKey.OPERATION_NAME),
+                tableOf(request.getOriginalRequest()),
+                RepositoryCallSite.current(),
+                System.nanoTime()));
+    }
+
+    @Override
+    public void beforeAttempt(HandlerBeforeAttemptContext context) {
+        Call call = context.getRequest().getHandlerContext(CALL);
+        if (call != null) {
+            call.attempts++;
+        }
+    }
+
+    @Override
+    public void afterAttempt(HandlerAfterAttemptContext context) {
+        Call call = context.getRequest().getHandlerContext(CALL);
+        if (call != null
+                && context.getException() instanceof AmazonServiceException serviceException
+                && RetryUtils.isThrottlingException(serviceException)) {
+            throttles.withTags(call.tags).increment();
+        }
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        Call call = request.getHandlerContext(CALL);
+        if (call == null) {
+            return;
+        }
+        complete(call, "success");
+        consumedCapacityOf(response.getAwsResponse())
+                .forEach(capacity -> recordConsumedCapacity(call, capacity));
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        Call call = request.getHandlerContext(CALL);
+        if (call == null) {
+            return;
+        }
+        complete(call, e instanceof AmazonServiceException serviceException && serviceException.getErrorCode() != null
+                ? serviceException.getErrorCode()
+                : e.getClass().getSimpleName());
+    }
+
+    private void complete(Call call, String outcome) {
+        requests.withTags(call.tags.and("outcome", outcome))
+                .record(System.nanoTime() - call.startNanos, TimeUnit.NANOSECONDS);
+        if (call.attempts > 1) {
+            retries.withTags(call.tags).increment(call.attempts - 1);
+        }
+    }
+
+    private void recordConsumedCapacity(Call call, ConsumedCapacity consumed) {
+        // With INDEXES the base table and every index are broken out; with TOTAL only the sum is there
+        if (consumed.getTable() != null) {
+            recordCapacity(call, consumed.getTableName(), NONE, consumed.getTable());
+        } else {
+            recordCapacity(call, consumed.getTableName(), NONE, new Capacity()
+                    .withReadCapacityUnits(consumed.getReadCapacityUnits())
+                    .withWriteCapacityUnits(consumed.getWriteCapacityUnits())
+                    .withCapacityUnits(consumed.getCapacityUnits()));
+        }
+        forEachIndex(consumed.getGlobalSecondaryIndexes(),
+                (index, capacity) -> recordCapacity(call, consumed.getTableName(), index, capacity));
+        forEachIndex(consumed.getLocalSecondaryIndexes(),
+                (index, capacity) -> recordCapacity(call, consumed.getTableName(), index, capacity));
+    }
+
+    private void recordCapacity(Call call, String table, String index, Capacity capacity) {
+        Tags tags = Tags.of("operation", call.operation, "table", table, "index", index, "caller", call.caller);
+        boolean split = false;
+        if (capacity.getReadCapacityUnits() != null) {
+            consumedCapacity.withTags(tags.and("type", "read")).record(capacity.getReadCapacityUnits());
+            split = true;
+        }
+        if (capacity.getWriteCapacityUnits() != null) {
+            consumedCapacity.withTags(tags.and("type", "write")).record(capacity.getWriteCapacityUnits());
+            split = true;
+        }
+        if (!split && capacity.getCapacityUnits() != null) {
+            consumedCapacity.withTags(tags.and("type", "total")).record(capacity.getCapacityUnits());
+        }
+    }
+
+    private static void forEachIndex(Map<String, Capacity> indexes,
+                                     BiConsumer<String, Capacity> action) {
+        if (indexes != null) {
+            indexes.forEach(action);
+        }
+    }
+
+    private void requestConsumedCapacity(AmazonWebServiceRequest request) {
+        switch (request) {
+            case GetItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case PutItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case UpdateItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case DeleteItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case QueryRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case ScanRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case BatchGetItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case BatchWriteItemRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case TransactGetItemsRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            case TransactWriteItemsRequest r when r.getReturnConsumedCapacity() == null -> r.setReturnConsumedCapacity(returnConsumedCapacity);
+            default -> {
+                // control-plane calls (DescribeTable, ...) and requests that chose their own setting
+            }
+        }
+    }
+
+    private static List<ConsumedCapacity> consumedCapacityOf(Object result) {
+        List<ConsumedCapacity> consumed = switch (result) {
+            case GetItemResult r -> single(r.getConsumedCapacity());
+            case PutItemResult r -> single(r.getConsumedCapacity());
+            case UpdateItemResult r -> single(r.getConsumedCapacity());
+            case DeleteItemResult r -> single(r.getConsumedCapacity());
+            case QueryResult r -> single(r.getConsumedCapacity());
+            case ScanResult r -> single(r.getConsumedCapacity());
+            case BatchGetItemResult r -> r.getConsumedCapacity();
+            case BatchWriteItemResult r -> r.getConsumedCapacity();
+            case TransactGetItemsResult r -> r.getConsumedCapacity();
+            case TransactWriteItemsResult r -> r.getConsumedCapacity();
+            case null, default -> null;
+        };
+        return consumed != null ? consumed : List.of();
+    }
+
+    private static List<ConsumedCapacity> single(ConsumedCapacity consumed) {
+        return consumed != null ? List.of(consumed) : null;
+    }
+
+    // Table the request targets: "multiple" for transactions and batches across tables
+    static String tableOf(AmazonWebServiceRequest request) {
+        String table = switch (request) {
+            case GetItemRequest r -> r.getTableName();
+            case PutItemRequest r -> r.getTableName();
+            case UpdateItemRequest r -> r.getTableName();
+            case DeleteItemRequest r -> r.getTableName();
+            case QueryRequest r -> r.getTableName();
+            case ScanRequest r -> r.getTableName();
+            case BatchGetItemRequest r -> onlyTable(r.getRequestItems() != null ? r.getRequestItems().keySet() : null);
+            case BatchWriteItemRequest r -> onlyTable(r.getRequestItems() != null ? r.getRequestItems().keySet() : null);
+            case TransactGetItemsRequest r -> MULTIPLE_TABLES;
+            case TransactWriteItemsRequest r -> MULTIPLE_TABLES;
+            case null, default -> null;
+        };
+        return table != null ? table : NONE;
+    }
+
+    private static String onlyTable(Collection<String> tables) {
+        if (tables == null || tables.isEmpty()) {
+            return null;
+        }
+        return tables.size() == 1 ? tables.iterator().next() : MULTIPLE_TABLES;
+    }
+
+    // Per-execution state, kept in the request's handler context
+    private static final class Call {
+
+        private final String operation;
+        private final String caller;
+        private final Tags tags;
+        private final long startNanos;
+        private int attempts;
+
+        private Call(String operation, String table, String caller, long startNanos) {
+            this.operation = operation != null ? operation : "unknown";
+            this.caller = caller;
+            this.tags = Tags.of("operation", this.operation, "table", table, "caller", caller);
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.phyo.food_management_system.config;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.phyo.food_management_system.repository.RepositoryCallSite;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// One CLIENT span per DynamoDB request ("dynamodb Query"), child of whatever is current on the
+// calling thread (HTTP request, cache load, @Async task), registered on the client in DynamoDbConfig.
+// Plain spans rather than observations: latency metrics already come from DynamoDbRequestMetrics.
+@Component
+public class DynamoDbTracing extends RequestHandler2 {
+
+    private static final HandlerContextKey<SpanInScope> SPAN = new HandlerContextKey<>("app.tracing.span");
+
+    private final ObjectProvider<Tracer> tracer;
+
+    public DynamoDbTracing(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        Tracer current = tracer.getIfAvailable(() -> Tracer.NOOP);
+        String operation = request.getHandlerContext(HandlerContextKey.OPERATION_NAME);
+
+        Span span = current.spanBuilder()
+                .name("dynamodb " + operation)
+                .kind(Span.Kind.CLIENT)
+                .remoteServiceName("dynamodb")
+                .tag("db.system", "dynamodb")
+                .tag("db.operation", String.valueOf(operation))
+                .tag("aws.dynamodb.table_names", DynamoDbRequestMetrics.tableOf(request.getOriginalRequest()))
+                .tag("caller", RepositoryCallSite.current())
+                .start();
+        request.addHandlerContext(SPAN, new SpanInScope(span, current.withSpan(span)));
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        end(request, null);
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        end(request, e);
+    }
+
+    private static void end(Request<?> request, Exception e) {
+        SpanInScope spanInScope = request.getHandlerContext(SPAN);
+        if (spanInScope == null) {
+            return;
+        }
+        if (e != null) {
+            if (e instanceof AmazonServiceException serviceException && serviceException.getErrorCode() != null) {
+                spanInScope.span().tag("aws.error_code", serviceException.getErrorCode());
+            }
+            spanInScope.span().error(e);
+        }
+        spanInScope.scope().close();
+        spanInScope.span().end();
+    }
+
+    private record SpanInScope(Span span, Tracer.SpanInScope scope) {
+    }
+}
@@ -1,38 +1,134 @@
 package com.phyo.food_management_system.config;
 
+import com.phyo.food_management_system.cache.CompressingRedisSerializer;
+import com.phyo.food_management_system.cache.InvalidationListenerContainer;
+import com.phyo.food_management_system.cache.ObservedCacheManager;
+import com.phyo.food_management_system.cache.SmileRedisSerializer;
+import com.phyo.food_management_system.cache.TwoLevelCache;
+import com.phyo.food_management_system.cache.TwoLevelCacheManager;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 
 @Configuration
+@EnableConfigurationProperties(RedisCacheProperties.class)
 public class RedisCacheConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                          RedisCacheProperties properties) {
 
-        // The new recommended serializer (handles polymorphic types safely)
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer();
+        // Per-cache TTL, key prefix, serializer and compression from app.cache.redis
+        Map<String, RedisCacheConfiguration> perCache = new LinkedHashMap<>();
+        properties.getCaches().keySet()
+                .forEach(name -> perCache.put(name, cacheConfiguration(properties.specFor(name))));
+
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration(properties.getDefaults()))
+                .withInitialCacheConfigurations(perCache)
+                .build();
+    }
+
+    private static RedisCacheConfiguration cacheConfiguration(RedisCacheProperties.CacheSpec spec) {
+        RedisSerializer<Object> serializer = switch (spec.getSerializer()) {
+            // The new recommended serializer (handles polymorphic types safely)
+            case JSON -> new GenericJackson2JsonRedisSerializer();
+            case JDK -> new JdkSerializationRedisSerializer();
+            case SMILE -> new SmileRedisSerializer();
+        };
+        // Always wrapped, even for NONE, so values compressed under an earlier setting stay readable
+        serializer = new CompressingRedisSerializer(serializer, spec.getCompression(),
+                (int) spec.getCompressionThreshold().toBytes());
 
         RedisCacheConfiguration config = RedisCacheConfiguration
                 .defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(spec.getTtl())
                 .disableCachingNullValues()
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(serializer)
                 );
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        if (spec.getKeyPrefix() != null && !spec.getKeyPrefix().isBlank()) {
+            config = config.computePrefixWith(cacheName -> spec.getKeyPrefix() + cacheName + "::");
+        }
+        return config;
+    }
+
+    // What @Cacheable and injected CacheManagers use: the two-level manager (or Redis alone when
+    // app.cache.l1.enabled=false), with every cache access traced as a "cache.access" observation
+    @Bean
+    @Primary
+    public CacheManager observedCacheManager(RedisCacheManager cacheManager,
+                                             ObjectProvider<TwoLevelCacheManager> twoLevelCacheManager,
+                                             ObservationRegistry observationRegistry) {
+        CacheManager target = twoLevelCacheManager.getIfAvailable();
+        return new ObservedCacheManager(target != null ? target : cacheManager, observationRegistry);
     }
-}
 
+    // Local Caffeine L1 in front of the Redis caches above
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l1.enabled", havingValue = "true", matchIfMissing = true)
+    public TwoLevelCacheManager twoLevelCacheManager(
+            RedisCacheManager cacheManager,
+            StringRedisTemplate redisTemplate,
+            @Value("${app.cache.l1.cache-names:menuItem,restaurantMenu,restaurant,restaurantList,order,userOrders}") Set<String> cacheNames,
+            @Value("${app.cache.l1.ttl:60s}") Duration ttl,
+            @Value("${app.cache.l1.max-size:10000}") long maxSize,
+            @Value("${app.cache.early-refresh.cache-names:restaurantMenu,restaurant}") Set<String> earlyRefreshCacheNames,
+            @Value("${app.cache.early-refresh.beta:1.0}") double earlyRefreshBeta,
+            @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+            RedisCacheProperties properties) {
+        return new TwoLevelCacheManager(cacheManager, redisTemplate, cacheName -> {
+            if (!cacheNames.contains(cacheName)) {
+                return null;
+            }
+            RedisCacheProperties.CacheSpec spec = properties.specFor(cacheName);
+            Duration redisTtl = spec.getTtl();
+            return new TwoLevelCache.Settings(
+                    min(ttl, redisTtl),     // L1 never keeps an entry longer than Redis would
+                    spec.getL1MaxSize() != null ? spec.getL1MaxSize() : maxSize,
+                    redisTtl,
+                    earlyRefreshCacheNames.contains(cacheName) ? earlyRefreshBeta : 0);
+        }, cacheRefreshExecutor);
+    }
 
+    // Receives the L1 invalidations published by the other nodes
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l1.enabled", havingValue = "true", matchIfMissing = true)
+    public InvalidationListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager twoLevelCacheManager,
+            @Value("${app.cache.l1.subscribe-retry-interval:5s}") Duration retryInterval) {
+        InvalidationListenerContainer container = new InvalidationListenerContainer(retryInterval.toMillis());
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(twoLevelCacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
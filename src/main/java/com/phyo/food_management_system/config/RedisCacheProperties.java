@@ -0,0 +1,72 @@
+package com.phyo.food_management_system.config;
+
+import com.phyo.food_management_system.cache.CompressingRedisSerializer.Algorithm;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Redis cache settings from app.cache.redis: "defaults" apply to every cache,
+// and each entry under "caches" overrides only the fields it sets for that cache name.
+@Data
+@ConfigurationProperties(prefix = "app.cache.redis")
+public class RedisCacheProperties {
+
+    private CacheSpec defaults = new CacheSpec(Duration.ofMinutes(30), null, SerializerType.JSON, Algorithm.NONE,
+            DataSize.ofKilobytes(1), null);
+
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    public enum SerializerType {
+        JSON,   // GenericJackson2JsonRedisSerializer (type info embedded, readable in redis-cli)
+        JDK,    // JdkSerializationRedisSerializer (cached values must be Serializable)
+        SMILE   // the JSON object model in binary Smile form: smaller and faster, not readable in redis-cli
+    }
+
+    @Data
+    public static class CacheSpec {
+        private Duration ttl;
+        // Prepended to "<cacheName>::" in every Redis key, e.g. to separate environments sharing a Redis
+        private String keyPrefix;
+        private SerializerType serializer;
+        // none | gzip | lz4; applied only to values of at least compression-threshold bytes.
+        // Entries written with another setting stay readable.
+        private Algorithm compression;
+        private DataSize compressionThreshold;
+        // Entries the local L1 keeps for this cache on each node (when it has one); unset = app.cache.l1.max-size
+        private Long l1MaxSize;
+
+        public CacheSpec() {
+        }
+
+        public CacheSpec(Duration ttl, String keyPrefix, SerializerType serializer,
+                         Algorithm compression, DataSize compressionThreshold, Long l1MaxSize) {
+            this.ttl = ttl;
+            this.keyPrefix = keyPrefix;
+            this.serializer = serializer;
+            this.compression = compression;
+            this.compressionThreshold = compressionThreshold;
+            this.l1MaxSize = l1MaxSize;
+        }
+
+        // This spec with the unset fields taken from fallback
+        public CacheSpec orElse(CacheSpec fallback) {
+            return new CacheSpec(
+                    ttl != null ? ttl : fallback.ttl,
+                    keyPrefix != null ? keyPrefix : fallback.keyPrefix,
+                    serializer != null ? serializer : fallback.serializer,
+                    compression != null ? compression : fallback.compression,
+                    compressionThreshold != null ? compressionThreshold : fallback.compressionThreshold,
+                    l1MaxSize != null ? l1MaxSize : fallback.l1MaxSize);
+        }
+    }
+
+    // Effective settings of a cache name
+    public CacheSpec specFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return spec == null ? defaults : spec.orElse(defaults);
+    }
+}
@@ -35,6 +35,10 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(req -> req
                         .requestMatchers("/auth/login").permitAll()
+                        // Probes stay anonymous; metrics, startup timings etc. need an ADMIN token (Prometheus
+                        // scrapes with bearer credentials)
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/auth/register").hasRole("ADMIN")
                         .requestMatchers(
                                         "/v3/api-docs/**",
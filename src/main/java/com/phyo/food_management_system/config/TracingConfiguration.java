@@ -0,0 +1,23 @@
+package com.phyo.food_management_system.config;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Spans come from Micrometer Tracing (OpenTelemetry bridge): HTTP server requests, JwtFilter
+// ("security.jwt"), cache accesses ("cache.access"), DynamoDB calls (DynamoDbTracing) and
+// "email.send". Sampling is set with management.tracing.sampling.probability (low by default, 1.0 in
+// the local profile).
+@Configuration
+public class TracingConfiguration {
+
+    // Local profile only: every finished span is written to the io.opentelemetry.exporter.logging logger.
+    // Any other SpanExporter bean (e.g. OTLP) is picked up alongside it.
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.log-exporter.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
@@ -4,6 +4,7 @@ import com.phyo.food_management_system.dto.request.MenuRequestDto;
 import com.phyo.food_management_system.dto.response.ErrorResponseDto;
 import com.phyo.food_management_system.dto.response.MenuResponseDto;
 import com.phyo.food_management_system.service.MenuService;
+import com.phyo.food_management_system.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -211,7 +213,7 @@ public class MenuController {
 
         MenuResponseDto menu = menuService.getMenuByMenuId(menuId);
 
-        return ResponseEntity.ok(menu);
+        return ETags.ok(menu, menu.getVersion());
     }
 
     @Operation(
@@ -260,17 +262,27 @@ public class MenuController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponseDto.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "The menu item was changed by someone else (stale If-Match or concurrent update)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
                     )
             }
     )
     @PutMapping("/{menuId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<MenuResponseDto> updateMenuByMenuId(
-            @PathVariable String menuId, @RequestBody MenuRequestDto menuRequestDto) {
+            @PathVariable String menuId, @RequestBody MenuRequestDto menuRequestDto,
+            @Parameter(description = "ETag from a previous read; the update fails with 409 if the item changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        MenuResponseDto menu = menuService.updateMenuItem(menuId, menuRequestDto);
+        MenuResponseDto menu = menuService.updateMenuItem(menuId, menuRequestDto, ETags.parseIfMatch(ifMatch));
 
-        return ResponseEntity.ok(menu);
+        return ETags.ok(menu, menu.getVersion());
 
     }
 
@@ -1,16 +1,19 @@
 package com.phyo.food_management_system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phyo.food_management_system.dto.request.OrderRequestDto;
 import com.phyo.food_management_system.dto.response.ErrorResponseDto;
 import com.phyo.food_management_system.dto.response.OrderResponseDto;
+import com.phyo.food_management_system.dto.response.PageResponseDto;
 import com.phyo.food_management_system.exception.UserNotFoundException;
-import com.phyo.food_management_system.model.Order;
 import com.phyo.food_management_system.model.OrderStatus;
 import com.phyo.food_management_system.model.User;
 import com.phyo.food_management_system.repository.UserRepository;
 import com.phyo.food_management_system.security.CustomUserDetails;
 import com.phyo.food_management_system.service.EmailService;
 import com.phyo.food_management_system.service.OrderService;
+import com.phyo.food_management_system.service.PlacedOrder;
+import com.phyo.food_management_system.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -23,17 +26,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Tag(
@@ -46,13 +51,19 @@ import java.util.List;
 @Slf4j
 public class OrderController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
     private final EmailService emailService;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Place a new order",
-            description = "Allows a USER to place a new order. Requires a valid JWT token. An email notification will be sent asynchronously after the order is placed.",
+            description = "Allows a USER to place a new order. Requires a valid JWT token. An email notification will be sent asynchronously after the order is placed. "
+                    + "Send an Idempotency-Key header to make retries safe: a repeated key returns the original order (with Idempotent-Replayed: true) and sends no second email.",
             security = {
                     @SecurityRequirement(name = "bearerAuth")
             },
@@ -96,18 +107,36 @@ public class OrderController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponseDto.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "Idempotency-Key already used with a different order",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
                     )
             }
     )
     // Place an order - USER only
     @PostMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<OrderResponseDto> placeOrder(@Valid @RequestBody OrderRequestDto orderRequestDto) {
-        OrderResponseDto order = orderService.placeOrder(orderRequestDto);
+    public ResponseEntity<OrderResponseDto> placeOrder(
+            @Valid @RequestBody OrderRequestDto orderRequestDto,
+            @Parameter(description = "Client-generated key (e.g. a UUID) per order; retries with the same key "
+                    + "return the first order instead of placing another one")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        PlacedOrder placed = orderService.placeOrder(orderRequestDto, idempotencyKey);
+        if (placed.replayed()) {
+            // A retry of an order that already went through: same answer, no second notification
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(placed.order());
+        }
         // Send email asynchronously
-        sendOrderNotificationEmail(order);
+        sendOrderNotificationEmail(placed.order());
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(order);
+                .body(placed.order());
     }
 
     @Operation(
@@ -177,7 +206,7 @@ public class OrderController {
             }
         }
 
-        return ResponseEntity.ok(order);
+        return ETags.ok(order, order.getVersion());
     }
 
 
@@ -240,17 +269,37 @@ public class OrderController {
 
     @Operation(
             summary = "Get all orders",
-            description = "Allows an ADMIN to view all orders in the system. Requires a valid JWT token.",
+            description = "Allows an ADMIN to page through all orders in the system. Pass the returned nextToken to fetch the following page; it is null on the last page. Requires a valid JWT token.",
             security = {
                     @SecurityRequirement(name = "bearerAuth")
             },
+            parameters = {
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of orders in the page (1-100, default 20)",
+                            in = ParameterIn.QUERY
+                    ),
+                    @Parameter(
+                            name = "nextToken",
+                            description = "Opaque token returned by the previous page",
+                            in = ParameterIn.QUERY
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "List of all orders retrieved successfully",
+                            description = "Page of orders retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = OrderResponseDto.class))
+                                    schema = @Schema(implementation = PageResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid page token, or limit outside 1-100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
                             )
                     ),
                     @ApiResponse(
@@ -271,14 +320,75 @@ public class OrderController {
                     )
             }
     )
-    // List all orders - ADMIN only
+    // List all orders page by page - ADMIN only
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
-        List<OrderResponseDto> orders = orderService.getAllOrders();
+    public ResponseEntity<PageResponseDto<OrderResponseDto>> getAllOrders(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String nextToken) {
+        PageResponseDto<OrderResponseDto> orders = orderService.getAllOrders(limit, nextToken);
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(
+            summary = "Stream all orders",
+            description = "Allows an ADMIN to export every order as newline-delimited JSON (one order per line). Orders are written as the table is scanned, so memory use stays flat regardless of table size. Requires a valid JWT token.",
+            security = {
+                    @SecurityRequirement(name = "bearerAuth")
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Orders streamed successfully",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = OrderResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthorized – missing or invalid JWT token",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Forbidden – only ADMIN users can access this resource",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    // Export all orders as NDJSON - ADMIN only
+    @GetMapping(value = "/stream", produces = NDJSON_MEDIA_TYPE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                orderService.streamAllOrders(orders -> {
+                    try {
+                        for (OrderResponseDto order : orders) {
+                            outputStream.write(objectMapper.writeValueAsBytes(order));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
     @Operation(
             summary = "Update order status",
             description = "Allows a USER to update their own order status and an ADMIN to update any order. Requires a valid JWT token.",
@@ -332,6 +442,14 @@ public class OrderController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponseDto.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Transition not allowed from the order's current status (e.g. DELIVERED → anything), or stale If-Match",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
                     )
             }
     )
@@ -339,7 +457,9 @@ public class OrderController {
     @PatchMapping("/{orderId}/status")
    public ResponseEntity<OrderResponseDto> updateOrderStatus(
             @PathVariable String orderId,
-            @RequestParam OrderStatus status, Authentication authentication) {
+            @RequestParam OrderStatus status, Authentication authentication,
+            @Parameter(description = "ETag from a previous read; the update fails with 409 if the item changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         OrderResponseDto order = orderService.getOrderById(orderId);
 
         boolean isAdmin = authentication.getAuthorities().stream()
@@ -352,26 +472,10 @@ public class OrderController {
             }
         }
 
-        OrderResponseDto updatedOrder = orderService.updateOrderStatus(orderId, status);
+        OrderResponseDto updatedOrder = orderService.updateOrderStatus(orderId, status, ETags.parseIfMatch(ifMatch));
         // Send email asynchronously
         sendOrderNotificationEmail(updatedOrder);
-        return ResponseEntity.ok(updatedOrder);
-    }
-
-    @Scheduled(fixedRate = 5 * 60 * 1000) // every 5 minutes
-    @Async("asyncTaskExecutor")
-    public void autoCancelStuckOrders() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(30);
-        List<Order> stuckOrders = orderService.getStuckOrders(cutoffTime);
-
-        stuckOrders.forEach(order -> {
-            try {
-                orderService.cancelOrder(order.getOrderId());
-                log.info("Cancelled order: {} by {} " , order.getOrderId(), Thread.currentThread().getName());
-            } catch (Exception e) {
-                log.error("Failed to cancel order {} : {} " , order.getOrderId() , e.getMessage());
-            }
-        });
+        return ETags.ok(updatedOrder, updatedOrder.getVersion());
     }
 
     private void sendOrderNotificationEmail(OrderResponseDto order) {
@@ -5,6 +5,7 @@ import com.phyo.food_management_system.dto.response.ErrorResponseDto;
 import com.phyo.food_management_system.dto.response.RestaurantResponseDto;
 import com.phyo.food_management_system.model.Restaurant;
 import com.phyo.food_management_system.service.RestaurantService;
+import com.phyo.food_management_system.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -16,6 +17,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -151,7 +153,7 @@ public class RestaurantController {
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantResponseDto> getRestaurantById(@PathVariable String id) {
         RestaurantResponseDto restaurant = restaurantService.getRestaurantById(id);
-        return ResponseEntity.ok(restaurant);
+        return ETags.ok(restaurant, restaurant.getVersion());
     }
 
     @Operation(
@@ -260,6 +262,14 @@ public class RestaurantController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponseDto.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "The restaurant was changed by someone else (stale If-Match or concurrent update)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
                     )
             }
     )
@@ -269,7 +279,9 @@ public class RestaurantController {
     @PutMapping("/{id}")
     public ResponseEntity<RestaurantResponseDto> updateRestaurant(
             @PathVariable String id,
-            @Valid @RequestBody RestaurantRequestDto restaurantRequestDto) {
+            @Valid @RequestBody RestaurantRequestDto restaurantRequestDto,
+            @Parameter(description = "ETag from a previous read; the update fails with 409 if the item changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         Restaurant restaurant = new Restaurant();
 
@@ -277,10 +289,9 @@ public class RestaurantController {
         restaurant.setPhone(restaurantRequestDto.getPhone());
         restaurant.setAddress(restaurantRequestDto.getAddress());
 
-        restaurantService.updateRestaurant(id, restaurant);
-
-        RestaurantResponseDto responseDto = restaurantService.toRestaurantResponseDto(restaurant);
-        return ResponseEntity.ok(responseDto);
+        RestaurantResponseDto responseDto =
+                restaurantService.updateRestaurant(id, restaurant, ETags.parseIfMatch(ifMatch));
+        return ETags.ok(responseDto, responseDto.getVersion());
     }
 
     @Operation(
@@ -14,4 +14,5 @@ public class MenuResponseDto {
     private String name;
     private String description;
     private Double price;
+    private Long version;          // also sent as the ETag
 }
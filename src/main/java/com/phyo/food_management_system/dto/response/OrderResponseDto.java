@@ -26,5 +26,6 @@ public class OrderResponseDto {
     @JsonSerialize(using = LocalDateTimeSerializer.class)
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime updatedAt;
+    private Long version;          // also sent as the ETag
 
 }
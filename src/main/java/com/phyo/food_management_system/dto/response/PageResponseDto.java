@@ -0,0 +1,16 @@
+package com.phyo.food_management_system.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponseDto<T> {
+
+    private List<T> items;
+    private String nextToken;   // null when there are no more pages
+}
@@ -16,4 +16,5 @@ public class RestaurantResponseDto{
     private String name;
     private String address;
     private String phone;
+    private Long version;          // also sent as the ETag
 }
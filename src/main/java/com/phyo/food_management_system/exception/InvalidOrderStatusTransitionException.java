@@ -0,0 +1,25 @@
+package com.phyo.food_management_system.exception;
+
+import com.phyo.food_management_system.model.OrderStatus;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+@Getter
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+
+    private final String orderId;
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+
+    // currentStatus is null when the target status cannot be reached from any status
+    public InvalidOrderStatusTransitionException(String orderId, OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super(currentStatus == null
+                ? "Order " + orderId + " cannot be moved to " + requestedStatus
+                : "Order " + orderId + " cannot move from " + currentStatus + " to " + requestedStatus);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+}
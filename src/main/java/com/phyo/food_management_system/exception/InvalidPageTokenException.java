@@ -0,0 +1,13 @@
+package com.phyo.food_management_system.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPageTokenException extends RuntimeException {
+
+    public InvalidPageTokenException(String token){
+        super(token);
+    }
+
+}
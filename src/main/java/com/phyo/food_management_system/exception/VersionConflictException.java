@@ -0,0 +1,25 @@
+package com.phyo.food_management_system.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A versioned write lost against another one (or an If-Match that no longer matches)
+@ResponseStatus(value = HttpStatus.CONFLICT)
+@Getter
+public class VersionConflictException extends RuntimeException {
+
+    private final String resourceType;
+    private final String identifier;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public VersionConflictException(String resourceType, String identifier, Long expectedVersion, Long currentVersion) {
+        super(resourceType + " " + identifier + " was modified by someone else (expected version "
+                + expectedVersion + ", current version " + currentVersion + ")");
+        this.resourceType = resourceType;
+        this.identifier = identifier;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,53 @@
+package com.phyo.food_management_system.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverted;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConvertedEnum;
+import com.phyo.food_management_system.util.LocalDateTimeConverter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// A client Idempotency-Key already used to place an order; written in the same transaction as the order
+@DynamoDBTable(tableName = IdempotencyRecord.TABLE_NAME)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public static final String TABLE_NAME = "idempotency_keys";
+
+    @DynamoDBHashKey(attributeName = "idempotency_key")
+    private String idempotencyKey;  // "<userId>#<Idempotency-Key header>", so keys never collide across users
+
+    @DynamoDBAttribute(attributeName = "order_id")
+    private String orderId;
+
+    @DynamoDBAttribute(attributeName = "request_hash")
+    private String requestHash;     // fingerprint of the request body the key was first used with
+
+    @DynamoDBAttribute(attributeName = "expires_at")
+    private Long expiresAt;         // epoch seconds; the table's TTL attribute, the key may be reused after it
+
+    // The order as it was placed, so a replay answers with the original response even after the order has
+    // moved on: the fields that can change later (items, ids and created_at never do)
+    @DynamoDBAttribute(attributeName = "order_status")
+    @DynamoDBTypeConvertedEnum
+    private OrderStatus orderStatus;
+
+    @DynamoDBAttribute(attributeName = "order_total_price")
+    private Double orderTotalPrice;
+
+    @DynamoDBAttribute(attributeName = "order_updated_at")
+    @DynamoDBTypeConverted(converter = LocalDateTimeConverter.class)
+    private LocalDateTime orderUpdatedAt;
+
+    @DynamoDBAttribute(attributeName = "order_version")
+    private Long orderVersion;
+}
@@ -0,0 +1,27 @@
+package com.phyo.food_management_system.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Lease held by the node currently running a scheduled job
+@DynamoDBTable(tableName = "locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    @DynamoDBHashKey(attributeName = "lock_name")
+    private String lockName;
+
+    @DynamoDBAttribute(attributeName = "owner")
+    private String owner;
+
+    @DynamoDBAttribute(attributeName = "lease_until")
+    private Long leaseUntil;    // epoch millis; after this any node may take the lock over
+}
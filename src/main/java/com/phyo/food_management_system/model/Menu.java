@@ -27,4 +27,9 @@ public class Menu {
 
     @DynamoDBAttribute(attributeName = "price")
     private Double price;
+
+    // Optimistic locking: save() creates the item at version 1, PartialUpdateSupport.patch adds 1 on every
+    // update (pinned to the If-Match version when given), deletes only succeed at the version that was read
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
 }
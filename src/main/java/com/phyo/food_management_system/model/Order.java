@@ -8,10 +8,13 @@ import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
 
-@DynamoDBTable(tableName = "orders")
+@DynamoDBTable(tableName = Order.TABLE_NAME)
 @Data
 public class Order {
 
+    public static final String TABLE_NAME = "orders";
+    public static final String STATUS_CREATED_AT_INDEX = "status_created_at_index";
+
     @DynamoDBHashKey(attributeName = "order_id")
     @DynamoDBAutoGeneratedKey
     private String orderId;
@@ -29,16 +32,23 @@ public class Order {
     @DynamoDBAttribute(attributeName = "total_price")
     private Double totalPrice;
 
-    @DynamoDBAttribute(attributeName = "status")
+    // status + created_at also key the status_created_at_index GSI (used by the stuck-order sweep)
+    @DynamoDBIndexHashKey(attributeName = "status", globalSecondaryIndexName = STATUS_CREATED_AT_INDEX)
     @DynamoDBTypeConvertedEnum
     private OrderStatus status;
 
-    @DynamoDBAttribute(attributeName = "created_at")
+    @DynamoDBIndexRangeKey(attributeName = "created_at", globalSecondaryIndexName = STATUS_CREATED_AT_INDEX)
     @DynamoDBTypeConverted(converter = LocalDateTimeConverter.class)
     private LocalDateTime createdAt;
 
     @DynamoDBAttribute(attributeName = "updated_at")
     @DynamoDBTypeConverted(converter = LocalDateTimeConverter.class)
     private LocalDateTime updatedAt;
+
+    // 1 when placed: the mapper sets it on save(), OrderRepository itself for the transactional placement.
+    // Status updates are UpdateItems that ADD 1 to it, pinned to the If-Match version when one is given;
+    // the mapper's own version check is never used for orders after they are placed
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
 }
 
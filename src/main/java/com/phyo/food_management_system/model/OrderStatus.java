@@ -1,9 +1,33 @@
 package com.phyo.food_management_system.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PLACED,
     PREPARING,
     DELIVERED,
-    CANCELLED
-}
+    CANCELLED;
+
+    // Allowed transitions; DELIVERED and CANCELLED are final
+    private static final Map<OrderStatus, Set<OrderStatus>> PREDECESSORS = new EnumMap<>(OrderStatus.class);
 
+    static {
+        PREDECESSORS.put(PLACED, EnumSet.noneOf(OrderStatus.class));
+        PREDECESSORS.put(PREPARING, EnumSet.of(PLACED));
+        PREDECESSORS.put(DELIVERED, EnumSet.of(PREPARING));
+        PREDECESSORS.put(CANCELLED, EnumSet.of(PLACED, PREPARING));
+    }
+
+    // The statuses an order may move to this one from
+    public Set<OrderStatus> predecessors() {
+        return Collections.unmodifiableSet(PREDECESSORS.get(this));
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return PREDECESSORS.get(next).contains(this);
+    }
+}
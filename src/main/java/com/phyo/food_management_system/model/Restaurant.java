@@ -4,6 +4,7 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAutoGeneratedKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,4 +27,9 @@ public class Restaurant {
     @DynamoDBAttribute(attributeName = "phone")
     private String phone;
 
+    // Optimistic locking, as for Menu: created at version 1, PartialUpdateSupport.patch adds 1 on every update
+    // (pinned to the If-Match version when given), deletes only succeed at the version that was read
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
+
 }
@@ -0,0 +1,47 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared BatchGetItem helper for the repositories.
+ * Keys are de-duplicated and sent in chunks of at most 100 (the BatchGetItem limit);
+ * UnprocessedKeys of each chunk are re-submitted with back-off by the mapper's
+ * DefaultBatchLoadRetryStrategy before the chunk returns.
+ */
+final class BatchLoadSupport {
+
+    static final int MAX_KEYS_PER_BATCH = 100;
+
+    private BatchLoadSupport() {
+    }
+
+    static <T> Map<String, T> batchLoadByHashKey(DynamoDBMapper dynamoDBMapper,
+                                                 Collection<String> ids,
+                                                 Function<String, T> keyFactory,
+                                                 Function<T, String> idExtractor) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, T> result = new LinkedHashMap<>();
+
+        for (int from = 0; from < distinctIds.size(); from += MAX_KEYS_PER_BATCH) {
+            List<String> chunk = distinctIds.subList(from, Math.min(from + MAX_KEYS_PER_BATCH, distinctIds.size()));
+
+            List<T> keys = chunk.stream().map(keyFactory).toList();
+            Map<String, List<Object>> loaded = dynamoDBMapper.batchLoad(keys);
+
+            loaded.values().forEach(items -> items.forEach(item -> {
+                @SuppressWarnings("unchecked")
+                T typed = (T) item;
+                result.put(idExtractor.apply(typed), typed);
+            }));
+        }
+        return result;
+    }
+}
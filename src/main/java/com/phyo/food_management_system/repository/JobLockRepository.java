@@ -0,0 +1,99 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.phyo.food_management_system.model.JobLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Lease-based locks in the "locks" table; every write is conditional so two nodes can never both hold a lease
+@Repository
+@RequiredArgsConstructor
+public class JobLockRepository {
+
+    private static final String TABLE_NAME = "locks";
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    // Take the lock if it is free, expired, or already ours
+    public boolean tryAcquire(String lockName, String owner, long leaseUntil, long now) {
+        PutItemRequest request = new PutItemRequest()
+                .withTableName(TABLE_NAME)
+                .withItem(Map.of(
+                        "lock_name", new AttributeValue().withS(lockName),
+                        "owner", new AttributeValue().withS(owner),
+                        "lease_until", new AttributeValue().withN(Long.toString(leaseUntil))
+                ))
+                .withConditionExpression("attribute_not_exists(lock_name) OR lease_until < :now OR #owner = :owner")
+                .withExpressionAttributeNames(Map.of("#owner", "owner"))
+                .withExpressionAttributeValues(Map.of(
+                        ":now", new AttributeValue().withN(Long.toString(now)),
+                        ":owner", new AttributeValue().withS(owner)
+                ));
+        try {
+            amazonDynamoDB.putItem(request);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    // Heartbeat / hold: move our own lease; fails if another node has taken it over
+    public boolean extend(String lockName, String owner, long leaseUntil) {
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(TABLE_NAME)
+                .withKey(Map.of("lock_name", new AttributeValue().withS(lockName)))
+                .withUpdateExpression("SET lease_until = :leaseUntil")
+                .withConditionExpression("#owner = :owner")
+                .withExpressionAttributeNames(Map.of("#owner", "owner"))
+                .withExpressionAttributeValues(Map.of(
+                        ":leaseUntil", new AttributeValue().withN(Long.toString(leaseUntil)),
+                        ":owner", new AttributeValue().withS(owner)
+                ));
+        try {
+            amazonDynamoDB.updateItem(request);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    public boolean release(String lockName, String owner) {
+        DeleteItemRequest request = new DeleteItemRequest()
+                .withTableName(TABLE_NAME)
+                .withKey(Map.of("lock_name", new AttributeValue().withS(lockName)))
+                .withConditionExpression("#owner = :owner")
+                .withExpressionAttributeNames(Map.of("#owner", "owner"))
+                .withExpressionAttributeValues(Map.of(":owner", new AttributeValue().withS(owner)));
+        try {
+            amazonDynamoDB.deleteItem(request);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    public Optional<JobLock> getLock(String lockName) {
+        return Optional.ofNullable(dynamoDBMapper.load(JobLock.class, lockName));
+    }
+
+    // Creates the locks table when missing (e.g. a fresh DynamoDB Local) and waits until it is active
+    public void createTableIfNotExists() throws InterruptedException {
+        CreateTableRequest request = dynamoDBMapper.generateCreateTableRequest(JobLock.class)
+                .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        TableUtils.createTableIfNotExists(amazonDynamoDB, request);
+        TableUtils.waitUntilActive(amazonDynamoDB, request.getTableName());
+    }
+}
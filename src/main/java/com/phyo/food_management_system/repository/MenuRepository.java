@@ -1,13 +1,17 @@
 package com.phyo.food_management_system.repository;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.phyo.food_management_system.exception.MenuNotFoundException;
+import com.phyo.food_management_system.exception.VersionConflictException;
 import com.phyo.food_management_system.model.Menu;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -17,6 +21,7 @@ import java.util.Optional;
 public class MenuRepository {
 
     private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
 
     // Add new menu item
     public Menu addMenuItem(Menu menu) {
@@ -29,6 +34,30 @@ public class MenuRepository {
         return Optional.ofNullable(dynamoDBMapper.load(Menu.class, menuId));
     }
 
+    // Get several menu items in one BatchGetItem round trip per 100 ids, keyed by menuId.
+    // Throws MenuNotFoundException listing every id that does not exist.
+    public Map<String, Menu> getMenuItemsByIds(Collection<String> menuIds) {
+        Map<String, Menu> menus = BatchLoadSupport.batchLoadByHashKey(
+                dynamoDBMapper,
+                menuIds,
+                menuId -> {
+                    Menu key = new Menu();
+                    key.setMenuId(menuId);
+                    return key;
+                },
+                Menu::getMenuId
+        );
+
+        List<String> missingIds = menuIds.stream()
+                .filter(menuId -> !menus.containsKey(menuId))
+                .distinct()
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new MenuNotFoundException(String.join(", ", missingIds));
+        }
+        return menus;
+    }
+
     // List all menu items for a restaurant (Using GSI: restaurantId_index)
     public List<Menu> getMenuByRestaurantId(String restaurantId) {
         DynamoDBQueryExpression<Menu> queryExpression = new DynamoDBQueryExpression<Menu>()
@@ -39,30 +68,34 @@ public class MenuRepository {
                         Map.of(":resId", new AttributeValue().withS(restaurantId))
                 );
 
-        return dynamoDBMapper.query(Menu.class, queryExpression);
+        // Copied, so every page is read here (and tagged with this method) rather than lazily by the caller
+        return new ArrayList<>(dynamoDBMapper.query(Menu.class, queryExpression));
     }
 
-    // Update menu item
-    public Menu updateMenuItem(String menuId, Menu updatedMenu) {
-        Menu existingMenu = dynamoDBMapper.load(Menu.class, menuId);
-
-        if (existingMenu != null) {
-            existingMenu.setName(updatedMenu.getName());
-            existingMenu.setPrice(updatedMenu.getPrice());
-            existingMenu.setRestaurantId(updatedMenu.getRestaurantId());
-            existingMenu.setDescription(updatedMenu.getDescription());
-            dynamoDBMapper.save(existingMenu);
-            return existingMenu;
-        } else {
-            throw new MenuNotFoundException(menuId);
+    // Partial update: one UpdateItem of the non-null fields of changes, no read. The result carries the item
+    // as it was before (e.g. its previous restaurant) and after the write. expectedVersion (from If-Match)
+    // pins the write to that version, VersionConflictException otherwise; null skips the check
+    public PatchResult<Menu> updateMenuItem(String menuId, Menu changes, Long expectedVersion) {
+        changes.setMenuId(menuId);
+        changes.setVersion(null);
+        PatchResult<Menu> result = PartialUpdateSupport.patch(amazonDynamoDB, dynamoDBMapper, Menu.class, changes,
+                VersionedWriteSupport.expectedVersion(expectedVersion),
+                () -> new MenuNotFoundException(menuId));
+        if (!result.applied()) {
+            throw new VersionConflictException("Menu", menuId, expectedVersion, result.before().getVersion());
         }
+        return result;
     }
 
     // Delete menu item
-    public void deleteMenuItem(String menuId) {
+    // Returns the deleted item, so callers know which restaurant's menu changed
+    public Menu deleteMenuItem(String menuId) {
         Menu menu = dynamoDBMapper.load(Menu.class, menuId);
         if (menu != null) {
-            dynamoDBMapper.delete(menu);
+            VersionedWriteSupport.delete(dynamoDBMapper, menu,
+                    () -> new MenuNotFoundException(menuId),
+                    current -> new VersionConflictException("Menu", menuId, menu.getVersion(), current.getVersion()));
+            return menu;
         } else {
             throw new MenuNotFoundException(menuId);
         }
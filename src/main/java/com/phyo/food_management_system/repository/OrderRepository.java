@@ -1,36 +1,143 @@
 package com.phyo.food_management_system.repository;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnValuesOnConditionCheckFailure;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.phyo.food_management_system.exception.InvalidOrderStatusTransitionException;
 import com.phyo.food_management_system.exception.OrderNotFoundException;
+import com.phyo.food_management_system.exception.VersionConflictException;
+import com.phyo.food_management_system.model.IdempotencyRecord;
 import com.phyo.food_management_system.model.Order;
 import com.phyo.food_management_system.model.OrderStatus;
+import com.phyo.food_management_system.util.OrderItemListConverter;
+import com.phyo.food_management_system.util.OrderItemsAttributeTransformer;
+import com.phyo.food_management_system.util.PageTokenCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderRepository {
 
+    private static final int STUCK_ORDER_PAGE_SIZE = 100;
+    private static final int IDEMPOTENT_PLACE_ATTEMPTS = 4;
+
     private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final ParallelScanner parallelScanner;
+    private final OrderItemsAttributeTransformer orderItemsAttributeTransformer;
 
     public Order placeOrder(Order order) {
         dynamoDBMapper.save(order);
         return order;
     }
 
+    // Writes the order and its Idempotency-Key record in one TransactWriteItems. The record is only put while
+    // the key is unused (or past its expiry), so of several concurrent retries exactly one creates an order.
+    // Returns false, with nothing written, when the key is already taken; order.orderId is assigned here, and
+    // the record keeps what the order looked like when placed (see IdempotencyRecord).
+    // A TransactionConflict on the key (another retry's transaction is in flight) is retried after a short
+    // back-off, by which time that transaction has either committed (-> false) or failed (-> we may write).
+    public boolean placeOrder(Order order, IdempotencyRecord idempotencyRecord) {
+        order.setOrderId(UUID.randomUUID().toString());
+        order.setVersion(1L);
+        idempotencyRecord.setOrderId(order.getOrderId());
+        idempotencyRecord.setOrderStatus(order.getStatus());
+        idempotencyRecord.setOrderTotalPrice(order.getTotalPrice());
+        idempotencyRecord.setOrderUpdatedAt(order.getUpdatedAt());
+        idempotencyRecord.setOrderVersion(order.getVersion());
+
+        // The table model skips the mapper's attribute transformer, so the items write format is applied here
+        Map<String, AttributeValue> orderItem = orderItemsAttributeTransformer.toWriteFormat(
+                dynamoDBMapper.getTableModel(Order.class).convert(order));
+        Map<String, AttributeValue> keyItem =
+                dynamoDBMapper.getTableModel(IdempotencyRecord.class).convert(idempotencyRecord);
+
+        for (int attempt = 1; ; attempt++) {
+            Put orderPut = new Put()
+                    .withTableName(Order.TABLE_NAME)
+                    .withItem(orderItem)
+                    .withConditionExpression("attribute_not_exists(order_id)");
+            Put keyPut = new Put()
+                    .withTableName(IdempotencyRecord.TABLE_NAME)
+                    .withItem(keyItem)
+                    .withConditionExpression("attribute_not_exists(idempotency_key) OR expires_at < :now")
+                    .withExpressionAttributeValues(Map.of(
+                            ":now", new AttributeValue().withN(Long.toString(Instant.now().getEpochSecond()))));
+            try {
+                amazonDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                        new TransactWriteItem().withPut(orderPut),
+                        new TransactWriteItem().withPut(keyPut)));
+                return true;
+            } catch (TransactionCanceledException e) {
+                String keyReason = keyCancellationReason(e);
+                if ("ConditionalCheckFailed".equals(keyReason)) {
+                    return false;
+                }
+                if (!"TransactionConflict".equals(keyReason) || attempt >= IDEMPOTENT_PLACE_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static String keyCancellationReason(TransactionCanceledException e) {
+        List<CancellationReason> reasons = e.getCancellationReasons();
+        return reasons != null && reasons.size() == 2 ? reasons.get(1).getCode() : null;
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing an order", e);
+        }
+    }
+
+    // Strongly consistent, a retry must see the record its first attempt just wrote
+    public Optional<IdempotencyRecord> getIdempotencyRecord(String idempotencyKey) {
+        return Optional.ofNullable(dynamoDBMapper.load(IdempotencyRecord.class, idempotencyKey,
+                DynamoDBMapperConfig.ConsistentReads.CONSISTENT.config()));
+    }
+
     public Optional<Order> getOrderByOrderId(String orderId) {
         return Optional.ofNullable(dynamoDBMapper.load(Order.class, orderId));
     }
 
+    // Strongly consistent, e.g. for an order another request's transaction has only just committed
+    public Optional<Order> getOrderByOrderIdConsistently(String orderId) {
+        return Optional.ofNullable(dynamoDBMapper.load(Order.class, orderId,
+                DynamoDBMapperConfig.ConsistentReads.CONSISTENT.config()));
+    }
+
     public List<Order> getOrdersByUserId(String userId) {
         Map<String, AttributeValue> eav = new HashMap<>();
         eav.put(":userId", new AttributeValue().withS(userId));
@@ -41,33 +148,115 @@ public class OrderRepository {
                 .withKeyConditionExpression("userId = :userId")
                 .withExpressionAttributeValues(eav);
 
-        return dynamoDBMapper.query(Order.class, query);
+        // Copied, so every page is read here (and tagged with this method) rather than lazily by the caller
+        return new ArrayList<>(dynamoDBMapper.query(Order.class, query));
     }
 
-    public List<Order> getAllOrders() {
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
-        return dynamoDBMapper.scan(Order.class, scanExpression);
+    // One page of the orders table; pageToken is the nextToken of the previous page (null for the first)
+    public ResultPage<Order> getOrdersPage(int limit, String pageToken) {
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withLimit(limit)
+                .withExclusiveStartKey(PageTokenCodec.decode(pageToken));
+
+        ScanResultPage<Order> page = dynamoDBMapper.scanPage(Order.class, scanExpression);
+        return new ResultPage<>(page.getResults(), PageTokenCodec.encode(page.getLastEvaluatedKey()));
     }
 
-    public Order updateOrderStatus(String orderId, OrderStatus newStatus) {
+    // Every order via a parallel segmented scan (unordered) on the export pool; close the stream when done
+    public Stream<Order> streamAllOrders() {
+        return parallelScanner.scanForExport(Order.class);
+    }
 
-        Order existingOrder = dynamoDBMapper.load(Order.class, orderId);
+    // One conditional UpdateItem, no read: the condition only lets the write through from a status that
+    // may move to newStatus (see OrderStatus), so concurrent callers cannot overwrite each other's transition.
+    // On a failed condition the current item comes back with the error and tells "missing" from "not allowed".
+    // expectedVersion (from If-Match) additionally pins the write to that version; null skips the check.
+    public Order updateOrderStatus(String orderId, OrderStatus newStatus, Long expectedVersion) {
+        List<OrderStatus> allowedFrom = List.copyOf(newStatus.predecessors());
+        if (allowedFrom.isEmpty()) {
+            throw new InvalidOrderStatusTransitionException(orderId, null, newStatus);
+        }
 
-        if (existingOrder == null) {
-            throw new OrderNotFoundException(orderId);
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":new", new AttributeValue().withS(newStatus.name()));
+        values.put(":now", new AttributeValue().withS(LocalDateTime.now().toString()));
+        values.put(":one", new AttributeValue().withN("1"));
+        List<String> placeholders = new ArrayList<>();
+        for (int i = 0; i < allowedFrom.size(); i++) {
+            placeholders.add(":from" + i);
+            values.put(":from" + i, new AttributeValue().withS(allowedFrom.get(i).name()));
+        }
+        String condition = "attribute_exists(order_id) AND #st IN (" + String.join(", ", placeholders) + ")";
+        if (expectedVersion != null) {
+            condition += " AND #ver = :expectedVersion";
+            values.put(":expectedVersion", new AttributeValue().withN(expectedVersion.toString()));
         }
-        existingOrder.setUpdatedAt(LocalDateTime.now());
-        existingOrder.setStatus(newStatus);   // e.g. PLACED, PREPARING, DELIVERED, CANCELLED
-        dynamoDBMapper.save(existingOrder);
 
-        return existingOrder;
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(Order.TABLE_NAME)
+                .withKey(Map.of("order_id", new AttributeValue().withS(orderId)))
+                .withUpdateExpression("SET #st = :new, #ua = :now ADD #ver :one")
+                .withConditionExpression(condition)
+                .withExpressionAttributeNames(Map.of(
+                        "#st", "status",
+                        "#ua", "updated_at",
+                        "#ver", "version"
+                ))
+                .withExpressionAttributeValues(values)
+                .withReturnValues(ReturnValue.ALL_NEW)
+                .withReturnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD);
+        try {
+            UpdateItemResult result = amazonDynamoDB.updateItem(request);
+            return dynamoDBMapper.marshallIntoObject(Order.class, result.getAttributes());
+        } catch (ConditionalCheckFailedException e) {
+            if (e.getItem() == null || e.getItem().isEmpty()) {
+                throw new OrderNotFoundException(orderId);
+            }
+            Order current = dynamoDBMapper.marshallIntoObject(Order.class, e.getItem());
+            if (current.getStatus() != null && current.getStatus().canTransitionTo(newStatus)) {
+                throw new VersionConflictException("Order", orderId, expectedVersion, current.getVersion());
+            }
+            throw new InvalidOrderStatusTransitionException(orderId, current.getStatus(), newStatus);
+        }
     }
 
+    // Single conditional UpdateItem: moves the order to newStatus only while it is still in expectedStatus.
+    // No read beforehand; returns the updated order, or empty when it is missing or has already moved on.
+    public Optional<Order> updateOrderStatusIf(String orderId, OrderStatus expectedStatus, OrderStatus newStatus) {
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(Order.TABLE_NAME)
+                .withKey(Map.of("order_id", new AttributeValue().withS(orderId)))
+                .withUpdateExpression("SET #st = :new, #ua = :now ADD #ver :one")
+                .withConditionExpression("#st = :expected")
+                .withExpressionAttributeNames(Map.of(
+                        "#st", "status",
+                        "#ua", "updated_at",
+                        "#ver", "version"
+                ))
+                .withExpressionAttributeValues(Map.of(
+                        ":new", new AttributeValue().withS(newStatus.name()),
+                        ":expected", new AttributeValue().withS(expectedStatus.name()),
+                        ":now", new AttributeValue().withS(LocalDateTime.now().toString()),
+                        ":one", new AttributeValue().withN("1")
+                ))
+                .withReturnValues(ReturnValue.ALL_NEW);
+        try {
+            UpdateItemResult result = amazonDynamoDB.updateItem(request);
+            return Optional.of(dynamoDBMapper.marshallIntoObject(Order.class, result.getAttributes()));
+        } catch (ConditionalCheckFailedException e) {
+            return Optional.empty();
+        }
+    }
+
+    // PREPARING orders created at or before the cutoff, read from the status_created_at_index GSI
+    // page by page, so the cost follows the number of stuck orders rather than the table size.
+    // Only order_id is projected: the sweep needs nothing else, so no other attribute is read or decoded
     public List<Order> findStuckOrders(LocalDateTime cutoffTime) {
 
         Map<String, String> expressionAttributeNames = Map.of(
                 "#st", "status",
-                "#ca", "created_at"
+                "#ca", "created_at",
+                "#id", "order_id"
         );
 
         Map<String, AttributeValue> expressionAttributeValues = Map.of(
@@ -75,14 +264,55 @@ public class OrderRepository {
                 ":cutoff", new AttributeValue().withS(cutoffTime.toString())
         );
 
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("#st = :status AND #ca <= :cutoff")
-                .withExpressionAttributeNames(expressionAttributeNames)
-                .withExpressionAttributeValues(expressionAttributeValues);
+        List<Order> stuckOrders = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        do {
+            DynamoDBQueryExpression<Order> query = new DynamoDBQueryExpression<Order>()
+                    .withIndexName(Order.STATUS_CREATED_AT_INDEX)
+                    .withConsistentRead(false)
+                    .withKeyConditionExpression("#st = :status AND #ca <= :cutoff")
+                    .withProjectionExpression("#id")
+                    .withExpressionAttributeNames(expressionAttributeNames)
+                    .withExpressionAttributeValues(expressionAttributeValues)
+                    .withLimit(STUCK_ORDER_PAGE_SIZE)
+                    .withExclusiveStartKey(lastEvaluatedKey);
 
-        return dynamoDBMapper.scan(Order.class, scanExpression);
+            QueryResultPage<Order> page = dynamoDBMapper.queryPage(Order.class, query);
+            stuckOrders.addAll(page.getResults());
+            lastEvaluatedKey = page.getLastEvaluatedKey();
+        } while (lastEvaluatedKey != null);
+
+        return stuckOrders;
     }
 
+    // Orders whose items are still the legacy JSON string, as order_id + items only, via a parallel scan
+    // (unordered); close the stream when done
+    public Stream<Order> streamOrdersWithLegacyItems() {
+        return parallelScanner.scan(Order.class, () -> new DynamoDBScanExpression()
+                .withFilterExpression("attribute_type(#items, :string)")
+                .withProjectionExpression("order_id, #items")
+                .withExpressionAttributeNames(Map.of("#items", "items"))
+                .withExpressionAttributeValues(Map.of(":string", new AttributeValue().withS("S"))));
+    }
 
+    // Rewrites one order's items in the native list-of-maps form; conditional on them still being the
+    // legacy string, so a concurrent rewrite is never overwritten. false when there was nothing to do
+    public boolean migrateItems(Order order) {
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(Order.TABLE_NAME)
+                .withKey(Map.of("order_id", new AttributeValue().withS(order.getOrderId())))
+                .withUpdateExpression("SET #items = :items")
+                .withConditionExpression("attribute_type(#items, :string)")
+                .withExpressionAttributeNames(Map.of("#items", "items"))
+                .withExpressionAttributeValues(Map.of(
+                        ":items", OrderItemListConverter.encode(order.getItems()),
+                        ":string", new AttributeValue().withS("S")
+                ));
+        try {
+            amazonDynamoDB.updateItem(request);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
 }
-
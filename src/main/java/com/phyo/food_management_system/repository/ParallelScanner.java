@@ -0,0 +1,212 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Segmented (Segment/TotalSegments) scan of a whole table on the bounded parallelScanExecutor.
+// Each segment pages through its share of the table and hands pages to a bounded queue, which the
+// returned Stream drains, so memory stays at roughly queue-capacity pages however big the table is.
+// The returned Stream must be closed (try-with-resources) so abandoned scans stop their segments.
+// A segment holds its thread until the consumer has taken its pages, so a slow consumer keeps its scan's
+// threads busy. Internal scans therefore default to half the pool (two can always run side by side),
+// and scanForExport, drained at the pace of an HTTP client, runs on its own exportScanExecutor.
+@Component
+@Slf4j
+public class ParallelScanner {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 200;
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final AsyncTaskExecutor executor;
+    private final int totalSegments;
+    private final AsyncTaskExecutor exportExecutor;
+    private final int exportSegments;
+    private final int pageSize;
+    private final int queueCapacity;
+
+    public ParallelScanner(DynamoDBMapper dynamoDBMapper,
+                           @Qualifier("parallelScanExecutor") AsyncTaskExecutor executor,
+                           @Qualifier("exportScanExecutor") AsyncTaskExecutor exportExecutor,
+                           @Value("${aws.dynamodb.parallel-scan.segments:0}") int segments,
+                           @Value("${aws.dynamodb.parallel-scan.page-size:500}") int pageSize,
+                           @Value("${aws.dynamodb.parallel-scan.queue-capacity:16}") int queueCapacity) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.executor = executor;
+        this.totalSegments = segments > 0 ? segments : Math.max(1, poolSize(executor) / 2);
+        this.exportExecutor = exportExecutor;
+        this.exportSegments = poolSize(exportExecutor);
+        this.pageSize = pageSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // Threads of a fixed pool (its max size); the core count for other executors
+    private static int poolSize(AsyncTaskExecutor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            return pool.getMaxPoolSize();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public <T> Stream<T> scan(Class<T> type) {
+        return scan(type, DynamoDBScanExpression::new);
+    }
+
+    // The supplier must return a fresh expression per call; segment, limit and start key are set here
+    public <T> Stream<T> scan(Class<T> type, Supplier<DynamoDBScanExpression> expressionSupplier) {
+        return scan(type, expressionSupplier, executor, totalSegments);
+    }
+
+    // For a scan streamed to a client (NDJSON export): it uses the whole export pool and never the
+    // threads of the internal scans, so a slow reader only delays other exports
+    public <T> Stream<T> scanForExport(Class<T> type) {
+        return scan(type, DynamoDBScanExpression::new, exportExecutor, exportSegments);
+    }
+
+    private <T> Stream<T> scan(Class<T> type,
+                               Supplier<DynamoDBScanExpression> expressionSupplier,
+                               AsyncTaskExecutor executor,
+                               int totalSegments) {
+        SegmentedScan<T> scan = new SegmentedScan<>(totalSegments, queueCapacity);
+
+        try {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                int current = segment;
+                scan.futures.add(executor.submit(RepositoryCallSite.callingAs(
+                        () -> scanSegment(type, expressionSupplier, current, scan))));
+            }
+        } catch (RuntimeException e) {
+            // executor saturated: stop the segments that did start
+            scan.cancel();
+            throw e;
+        }
+
+        return StreamSupport.stream(scan, false).onClose(scan::cancel);
+    }
+
+    private <T> void scanSegment(Class<T> type,
+                                 Supplier<DynamoDBScanExpression> expressionSupplier,
+                                 int segment,
+                                 SegmentedScan<T> scan) {
+        try {
+            Map<String, AttributeValue> lastEvaluatedKey = null;
+            do {
+                DynamoDBScanExpression expression = expressionSupplier.get()
+                        .withSegment(segment)
+                        .withTotalSegments(scan.totalSegments)
+                        .withLimit(pageSize)
+                        .withExclusiveStartKey(lastEvaluatedKey);
+
+                ScanResultPage<T> page = dynamoDBMapper.scanPage(type, expression);
+                if (!page.getResults().isEmpty() && !scan.publish(page.getResults())) {
+                    return;
+                }
+                lastEvaluatedKey = page.getLastEvaluatedKey();
+            } while (lastEvaluatedKey != null && !scan.cancelled);
+
+            scan.publish(SegmentedScan.SEGMENT_DONE);
+        } catch (Exception e) {
+            if (scan.cancelled) {
+                return;     // interrupted by Stream.close(), nobody is waiting for the result
+            }
+            log.error("Parallel scan of {} failed in segment {} : {}", type.getSimpleName(), segment, e.getMessage());
+            scan.publish(new SegmentFailure(e));
+        }
+    }
+
+    private record SegmentFailure(Exception cause) {
+    }
+
+    private static final class SegmentedScan<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private static final Object SEGMENT_DONE = new Object();
+
+        private final int totalSegments;
+        private final BlockingQueue<Object> pages;
+        private final List<Future<?>> futures = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean cancelled;
+        private int remainingSegments;
+        private Iterator<T> currentPage = Collections.emptyIterator();
+
+        private SegmentedScan(int totalSegments, int queueCapacity) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.totalSegments = totalSegments;
+            this.pages = new ArrayBlockingQueue<>(queueCapacity);
+            this.remainingSegments = totalSegments;
+        }
+
+        // Blocks while the consumer is behind; gives up once the scan has been cancelled
+        private boolean publish(Object page) {
+            try {
+                while (!cancelled) {
+                    if (pages.offer(page, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (!currentPage.hasNext()) {
+                if (remainingSegments == 0) {
+                    return false;
+                }
+                Object next;
+                try {
+                    next = pages.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new IllegalStateException("Interrupted while waiting for scan results", e);
+                }
+
+                if (next == SEGMENT_DONE) {
+                    remainingSegments--;
+                } else if (next instanceof SegmentFailure failure) {
+                    cancel();
+                    throw new IllegalStateException("Parallel scan failed", failure.cause());
+                } else {
+                    currentPage = ((List<T>) next).iterator();
+                }
+            }
+            action.accept(currentPage.next());
+            return true;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            synchronized (futures) {
+                futures.forEach(future -> future.cancel(true));
+            }
+            pages.clear();
+        }
+    }
+}
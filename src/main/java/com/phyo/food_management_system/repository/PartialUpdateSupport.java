@@ -0,0 +1,116 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnValuesOnConditionCheckFailure;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shared partial-update (patch) writes for the repositories.
+ * One UpdateItem SETs the non-null mapped attributes of a "changes" object and nothing else, bumps the
+ * @DynamoDBVersionAttribute when the model has one, and is conditional on the item existing plus any
+ * attribute = value pairs the caller expects to be stored. ReturnValues=ALL_OLD gives the previous item,
+ * so neither a read before the write nor one after a failed condition is needed.
+ */
+final class PartialUpdateSupport {
+
+    private PartialUpdateSupport() {
+    }
+
+    // changes must carry the key; expected maps attribute names to the values they must currently hold
+    static <T> PatchResult<T> patch(AmazonDynamoDB amazonDynamoDB,
+                                    DynamoDBMapper dynamoDBMapper,
+                                    Class<T> type,
+                                    T changes,
+                                    Map<String, AttributeValue> expected,
+                                    Supplier<? extends RuntimeException> notFound) {
+        DynamoDBMapperTableModel<T> model = dynamoDBMapper.getTableModel(type);
+        Map<String, AttributeValue> key = model.convertKey(changes);
+
+        Map<String, AttributeValue> changed = new LinkedHashMap<>(model.convert(changes));
+        key.keySet().forEach(changed::remove);
+        List<String> versionAttributes = model.versions().stream().map(DynamoDBMapperFieldModel::name).toList();
+        versionAttributes.forEach(changed::remove);
+
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        List<String> sets = new ArrayList<>();
+        changed.forEach((attribute, value) -> {
+            String placeholder = "a" + names.size();
+            names.put("#" + placeholder, attribute);
+            values.put(":" + placeholder, value);
+            sets.add("#" + placeholder + " = :" + placeholder);
+        });
+        List<String> adds = new ArrayList<>();
+        for (String attribute : versionAttributes) {
+            String placeholder = "a" + names.size();
+            names.put("#" + placeholder, attribute);
+            values.put(":one", new AttributeValue().withN("1"));
+            adds.add("#" + placeholder + " :one");
+        }
+
+        String hashKey = model.hashKey().name();
+        names.put("#key", hashKey);
+        StringBuilder condition = new StringBuilder("attribute_exists(#key)");
+        expected.forEach((attribute, value) -> {
+            String placeholder = "e" + names.size();
+            names.put("#" + placeholder, attribute);
+            values.put(":" + placeholder, value);
+            condition.append(" AND #").append(placeholder).append(" = :").append(placeholder);
+        });
+
+        StringBuilder update = new StringBuilder();
+        if (!sets.isEmpty()) {
+            update.append("SET ").append(String.join(", ", sets));
+        }
+        if (!adds.isEmpty()) {
+            update.append(update.isEmpty() ? "" : " ").append("ADD ").append(String.join(", ", adds));
+        }
+
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(type.getAnnotation(DynamoDBTable.class).tableName())
+                .withKey(key)
+                .withConditionExpression(condition.toString())
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values.isEmpty() ? null : values)
+                .withReturnValues(ReturnValue.ALL_OLD)
+                .withReturnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD);
+        if (!update.isEmpty()) {
+            request.setUpdateExpression(update.toString());
+        }
+
+        Map<String, AttributeValue> before;
+        try {
+            before = amazonDynamoDB.updateItem(request).getAttributes();
+        } catch (ConditionalCheckFailedException e) {
+            if (e.getItem() == null || e.getItem().isEmpty()) {
+                throw notFound.get();
+            }
+            return new PatchResult<>(model.unconvert(e.getItem()), null);
+        }
+
+        // The new state is the old item with the changes applied, no need to ask for it
+        Map<String, AttributeValue> after = new HashMap<>(before);
+        after.putAll(changed);
+        for (String attribute : versionAttributes) {
+            AttributeValue current = before.get(attribute);
+            long next = (current == null ? 0L : Long.parseLong(current.getN())) + 1;
+            after.put(attribute, new AttributeValue().withN(Long.toString(next)));
+        }
+        return new PatchResult<>(model.unconvert(before), model.unconvert(after));
+    }
+}
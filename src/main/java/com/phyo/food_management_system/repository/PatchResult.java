@@ -0,0 +1,11 @@
+package com.phyo.food_management_system.repository;
+
+// Outcome of a partial update: the stored item before the write and after it.
+// When a caller-supplied condition failed on an existing item nothing was written, after is null
+// and before is the item as it is currently stored
+public record PatchResult<T>(T before, T after) {
+
+    public boolean applied() {
+        return after != null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.phyo.food_management_system.repository;
+
+// The repository method ("OrderRepository.findStuckOrders") a DynamoDB request on this thread is made for.
+// Set by MetricsAspect around repository calls (outermost call wins) and read by DynamoDbRequestMetrics
+// to tag client-level metrics; work handed to other threads must carry it over with callingAs().
+public final class RepositoryCallSite {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryCallSite() {
+    }
+
+    public static String current() {
+        String callSite = CURRENT.get();
+        return callSite != null ? callSite : UNKNOWN;
+    }
+
+    // Returns true when this call became the current call site and must be ended with exit()
+    public static boolean enter(String callSite) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(callSite);
+        return true;
+    }
+
+    public static void exit() {
+        CURRENT.remove();
+    }
+
+    // Wraps a task so that it runs with the call site of the thread that created it
+    public static Runnable callingAs(Runnable task) {
+        String callSite = CURRENT.get();
+        if (callSite == null) {
+            return task;
+        }
+        return () -> {
+            boolean entered = enter(callSite);
+            try {
+                task.run();
+            } finally {
+                if (entered) {
+                    exit();
+                }
+            }
+        };
+    }
+}
@@ -1,20 +1,27 @@
 package com.phyo.food_management_system.repository;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.phyo.food_management_system.exception.RestaurantNotFoundException;
+import com.phyo.food_management_system.exception.VersionConflictException;
 import com.phyo.food_management_system.model.Restaurant;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class RestaurantRepository {
 
     private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final ParallelScanner parallelScanner;
 
     public Restaurant addRestaurant(Restaurant restaurant){
         dynamoDBMapper.save(restaurant);
@@ -25,30 +32,51 @@ public class RestaurantRepository {
         return Optional.ofNullable(dynamoDBMapper.load(Restaurant.class, restaurantId));
     }
 
-    public List<Restaurant> getAllRestaurants() {
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
-        return dynamoDBMapper.scan(Restaurant.class, scanExpression);
+    // Batch load restaurants by id; ids that do not exist are simply absent from the result
+    public Map<String, Restaurant> getRestaurantsByIds(Collection<String> restaurantIds) {
+        return BatchLoadSupport.batchLoadByHashKey(
+                dynamoDBMapper,
+                restaurantIds,
+                restaurantId -> {
+                    Restaurant key = new Restaurant();
+                    key.setRestaurantId(restaurantId);
+                    return key;
+                },
+                Restaurant::getRestaurantId
+        );
     }
 
-    public Restaurant updateRestaurant(String restaurantId, Restaurant updatedRestaurant) {
-        Restaurant existingRestaurant = dynamoDBMapper.load(Restaurant.class, restaurantId);
-        if (existingRestaurant != null) {
+    // consistentRead for loads that must see a write that just happened (it doubles the scan's read cost)
+    public List<Restaurant> getAllRestaurants(boolean consistentRead) {
+        try (Stream<Restaurant> restaurants = parallelScanner.scan(Restaurant.class,
+                () -> new DynamoDBScanExpression().withConsistentRead(consistentRead))) {
+            return restaurants.toList();
+        }
+    }
 
-            existingRestaurant.setName(updatedRestaurant.getName());
-            existingRestaurant.setAddress(updatedRestaurant.getAddress());
-            existingRestaurant.setPhone(updatedRestaurant.getPhone());
-            dynamoDBMapper.save(existingRestaurant);
-            existingRestaurant.setRestaurantId(restaurantId);
-            return existingRestaurant;
-        } else {
-            throw new RestaurantNotFoundException(updatedRestaurant.getRestaurantId());
+    // Partial update: one UpdateItem of the non-null fields of changes, no read. expectedVersion (from If-Match)
+    // pins the write to that version, VersionConflictException otherwise; null skips the check
+    public Restaurant updateRestaurant(String restaurantId, Restaurant changes, Long expectedVersion) {
+        changes.setRestaurantId(restaurantId);
+        changes.setVersion(null);
+        PatchResult<Restaurant> result = PartialUpdateSupport.patch(amazonDynamoDB, dynamoDBMapper,
+                Restaurant.class, changes,
+                VersionedWriteSupport.expectedVersion(expectedVersion),
+                () -> new RestaurantNotFoundException(restaurantId));
+        if (!result.applied()) {
+            throw new VersionConflictException("Restaurant", restaurantId,
+                    expectedVersion, result.before().getVersion());
         }
+        return result.after();
     }
 
     public void deleteRestaurant(String restaurantId) {
         Restaurant restaurant = dynamoDBMapper.load(Restaurant.class, restaurantId);
         if (restaurant != null) {
-            dynamoDBMapper.delete(restaurant);
+            VersionedWriteSupport.delete(dynamoDBMapper, restaurant,
+                    () -> new RestaurantNotFoundException(restaurantId),
+                    current -> new VersionConflictException("Restaurant", restaurantId,
+                            restaurant.getVersion(), current.getVersion()));
         } else {
             throw new RestaurantNotFoundException(restaurantId);
         }
@@ -0,0 +1,7 @@
+package com.phyo.food_management_system.repository;
+
+import java.util.List;
+
+// One page of a scan/query; nextToken is the opaque encoded LastEvaluatedKey, null on the last page
+public record ResultPage<T>(List<T> items, String nextToken) {
+}
@@ -1,23 +1,27 @@
 package com.phyo.food_management_system.repository;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.phyo.food_management_system.exception.UserNotFoundException;
 import com.phyo.food_management_system.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class UserRepository {
 
     private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final ParallelScanner parallelScanner;
 
     public User register(User user){
         dynamoDBMapper.save(user);
@@ -28,23 +32,39 @@ public class UserRepository {
         return Optional.ofNullable(dynamoDBMapper.load(User.class, userId));
     }
 
-    public List<User> getAllUsers() {
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
-        return dynamoDBMapper.scan(User.class, scanExpression);
+    // Batch load users by id; ids that do not exist are simply absent from the result
+    public Map<String, User> getUsersByIds(Collection<String> userIds) {
+        return BatchLoadSupport.batchLoadByHashKey(
+                dynamoDBMapper,
+                userIds,
+                userId -> {
+                    User key = new User();
+                    key.setUserId(userId);
+                    return key;
+                },
+                User::getUserId
+        );
     }
 
-    public User updateUser(String userId, User updatedUser) {
-        User existingUser = dynamoDBMapper.load(User.class, userId);
-        if (existingUser != null) {
-            existingUser.setUsername(updatedUser.getUsername());
-            existingUser.setEmail(updatedUser.getEmail());
-            dynamoDBMapper.save(existingUser);
-            return existingUser;
-        } else {
-            throw new UserNotFoundException(updatedUser.getEmail());
+    public List<User> getAllUsers() {
+        try (Stream<User> users = parallelScanner.scan(User.class)) {
+            return users.toList();
         }
     }
 
+    // Partial update: one UpdateItem of the non-null fields of changes, no read.
+    // With expectedEmail the write only goes through while the stored email is still that address and
+    // returns empty otherwise; null skips the check
+    public Optional<User> updateUser(String userId, User changes, String expectedEmail) {
+        changes.setUserId(userId);
+        Map<String, AttributeValue> expected = expectedEmail == null
+                ? Map.of()
+                : Map.of("email", new AttributeValue().withS(expectedEmail));
+        PatchResult<User> result = PartialUpdateSupport.patch(amazonDynamoDB, dynamoDBMapper, User.class, changes,
+                expected, () -> new UserNotFoundException(userId));
+        return Optional.ofNullable(result.after());
+    }
+
     public void deleteUser(String userId) {
         User user = dynamoDBMapper.load(User.class, userId);
         if (user != null) {
@@ -0,0 +1,49 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Shared optimistic-locking writes for the repositories.
+ * Deletes go through the mapper, which makes them conditional on the item's @DynamoDBVersionAttribute
+ * (the version it was read with); a failed condition is resolved with one read into "not found" or a
+ * version conflict. Updates go through PartialUpdateSupport, which adds 1 to the version and is pinned
+ * to an expected one through {@link #expectedVersion}.
+ */
+final class VersionedWriteSupport {
+
+    private VersionedWriteSupport() {
+    }
+
+    // Condition for PartialUpdateSupport pinning the version attribute; no condition without an expected version
+    static Map<String, AttributeValue> expectedVersion(Long expectedVersion) {
+        return expectedVersion == null
+                ? Map.of()
+                : Map.of("version", new AttributeValue().withN(expectedVersion.toString()));
+    }
+
+    // Deletes the item only while it is still at the version it was read with
+    static <T> void delete(DynamoDBMapper dynamoDBMapper,
+                           T item,
+                           Supplier<? extends RuntimeException> notFound,
+                           Function<T, ? extends RuntimeException> conflict) {
+        try {
+            dynamoDBMapper.delete(item);
+        } catch (ConditionalCheckFailedException e) {
+            throw resolve(dynamoDBMapper, item, notFound, conflict);
+        }
+    }
+
+    private static <T> RuntimeException resolve(DynamoDBMapper dynamoDBMapper,
+                                                T item,
+                                                Supplier<? extends RuntimeException> notFound,
+                                                Function<T, ? extends RuntimeException> conflict) {
+        T current = dynamoDBMapper.load(item);
+        return current == null ? notFound.get() : conflict.apply(current);
+    }
+}
@@ -23,6 +23,14 @@ public class CustomUserDetails implements UserDetails {
         this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
 
+    // Principal rebuilt from verified token claims only (no password, no lookup)
+    public CustomUserDetails(String userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.username = email;
+        this.password = null;
+        this.authorities = authorities;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -0,0 +1,10 @@
+package com.phyo.food_management_system.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+// The claims JwtFilter needs, taken from one verified parse of the token
+public record JwtClaims(String subject, String userId, List<GrantedAuthority> roles, Instant expiresAt) {
+}
@@ -1,9 +1,12 @@
 package com.phyo.food_management_system.security;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,13 +19,20 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final DynamoUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PrincipalCache principalCache;
+    // "cache": principal from PrincipalCache (loaded once per TTL); "claims": built from the token alone
+    private final boolean principalFromClaims;
+    private final ObservationRegistry observationRegistry;
 
 
-    public JwtFilter(JwtUtil jwtUtil, DynamoUserDetailsService uds) {
-        this.jwtUtil = jwtUtil;
-        this.userDetailsService = uds;
+    public JwtFilter(VerifiedTokenCache verifiedTokenCache, PrincipalCache principalCache,
+                     @Value("${app.security.principal.mode:cache}") String principalMode,
+                     ObservationRegistry observationRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.principalCache = principalCache;
+        this.principalFromClaims = "claims".equalsIgnoreCase(principalMode);
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
@@ -48,32 +58,45 @@ public class JwtFilter extends OncePerRequestFilter {
         }
         SecurityContextHolder.clearContext();
         String authHeader = request.getHeader("Authorization");
-        String jwt = null;
-        String username = null;
+
+        // Token check and principal lookup get their own span / "security.jwt" timer, outside the rest of the chain
+        Observation observation = Observation.createNotStarted("security.jwt", observationRegistry)
+                .contextualName("jwt authenticate");
+        observation.observe(() -> authenticate(request, authHeader, observation));
+
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String authHeader, Observation observation) {
+        JwtClaims claims = null;
+        String outcome = "anonymous";
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
 
             try {
-                username = jwtUtil.extractUsername(jwt); // only parse inside try-block
+                claims = verifiedTokenCache.parseAndValidate(jwt); // hash lookup, or single parse + signature/expiry check
             } catch (Exception e) {
                 // Invalid token — do NOT throw exception, just skip authentication
                 SecurityContextHolder.clearContext();
+                outcome = "invalid";
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails details = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails details = principalFromClaims
+                    ? new CustomUserDetails(claims.userId(), claims.subject(), claims.roles())
+                    : principalCache.get(claims.subject());
 
-            if (jwtUtil.validateToken(jwt, details)) {
+            if (claims.subject().equals(details.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                outcome = "authenticated";
             }
         }
-
-        chain.doFilter(request, response);
+        observation.lowCardinalityKeyValue("outcome", outcome);
     }
 }
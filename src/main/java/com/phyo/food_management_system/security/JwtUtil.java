@@ -1,6 +1,7 @@
 package com.phyo.food_management_system.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,6 +21,8 @@ public class JwtUtil {
 
     private static final String SECRET_KEY = "your-very-secure-and-long-secret-key-that-is-at-least-256-bits-long"; // >= 32 characters
     private static final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    // Immutable and thread-safe, so one parser serves every request
+    private static final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
     // 🔥 Token expiration: 10 hours (in milliseconds)
     private static final long EXPIRATION = 1000 * 60 * 60;
 
@@ -48,47 +51,22 @@ public class JwtUtil {
     }
 
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public String extractUserId(String token) {
-        return (String) Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("userId");
-    }
-
-
-    public List<GrantedAuthority> extractRoles(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        List<String> roles = claims.get("roles", List.class); // read the claim
-        return roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toUnmodifiableList());
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
+    // Verifies signature and expiry once and returns everything the filter needs.
+    // Throws a JwtException when the token is malformed, tampered with or expired.
+    public JwtClaims parseAndValidate(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
 
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
 
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getExpiration().before(new Date());
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                roles == null ? List.of() : roles.stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toUnmodifiableList()),
+                claims.getExpiration().toInstant()
+        );
     }
 
     public long getExpiration() {
@@ -0,0 +1,78 @@
+package com.phyo.food_management_system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phyo.food_management_system.cache.CacheInvalidatedEvent;
+import com.phyo.food_management_system.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Bounded, TTL-based cache of authenticated principals keyed by email, so JwtFilter does not run an
+// email_index query on every request. UserServiceImpl invalidates entries when a user changes; the
+// invalidation goes to the other nodes over the L1 invalidation channel (cache name "principals").
+// Without the two-level cache manager (app.cache.l1.enabled=false), or if a message is lost, other
+// nodes keep serving the old principal for at most the cache TTL.
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    public static final String NAME = "principals";
+
+    private final DynamoUserDetailsService userDetailsService;
+    private final ObjectProvider<TwoLevelCacheManager> invalidationPublisher;
+    private final Cache<String, CustomUserDetails> principals;
+
+    public PrincipalCache(DynamoUserDetailsService userDetailsService,
+                          ObjectProvider<TwoLevelCacheManager> invalidationPublisher,
+                          @Value("${app.security.principal.cache-size:10000}") long cacheSize,
+                          @Value("${app.security.principal.cache-ttl:5m}") Duration cacheTtl) {
+        this.userDetailsService = userDetailsService;
+        this.invalidationPublisher = invalidationPublisher;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String email) {
+        return principals.get(email, key -> (CustomUserDetails) userDetailsService.loadUserByUsername(key));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, principals, NAME);
+    }
+
+    // Drop every cached principal of the user (the email may have just changed), here and on every other node
+    public void invalidateUser(String userId) {
+        invalidateLocal(userId);
+        TwoLevelCacheManager publisher = invalidationPublisher.getIfAvailable();
+        if (publisher != null) {
+            publisher.publishInvalidation(NAME, userId);
+        }
+    }
+
+    // Another node changed or deleted a user
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (NAME.equals(event.cacheName())) {
+            if (event.key() == null) {
+                principals.invalidateAll();
+            } else {
+                invalidateLocal(event.key());
+            }
+        }
+    }
+
+    private void invalidateLocal(String userId) {
+        principals.asMap().values().removeIf(details -> details.getUserId().equals(userId));
+    }
+}
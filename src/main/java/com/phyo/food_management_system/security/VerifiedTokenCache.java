@@ -0,0 +1,97 @@
+package com.phyo.food_management_system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+// Bounded cache of already verified tokens, keyed by the SHA-256 of the token (raw tokens are never kept),
+// so a client re-sending the same bearer token costs a hash lookup instead of an HMAC check.
+// An entry never outlives the token's own exp (nor max-ttl); tokens that fail verification are not cached.
+// Disable with app.security.jwt.verified-token-cache.enabled=false to verify every request.
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final Cache<String, JwtClaims> verifiedTokens;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${app.security.jwt.verified-token-cache.enabled:true}") boolean enabled,
+                              @Value("${app.security.jwt.verified-token-cache.size:10000}") long cacheSize,
+                              @Value("${app.security.jwt.verified-token-cache.max-ttl:15m}") Duration maxTtl) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+    }
+
+    // Same contract as JwtUtil.parseAndValidate: returns the claims or throws a JwtException
+    public JwtClaims parseAndValidate(String token) {
+        if (!enabled) {
+            return jwtUtil.parseAndValidate(token);
+        }
+
+        JwtClaims claims = verifiedTokens.get(sha256(token), key -> jwtUtil.parseAndValidate(token));
+
+        // Expiry is evaluated lazily; never hand out claims of a token that has just expired
+        if (!claims.expiresAt().isAfter(Instant.now())) {
+            verifiedTokens.invalidate(sha256(token));
+            return jwtUtil.parseAndValidate(token);     // throws ExpiredJwtException
+        }
+        return claims;
+    }
+
+    // Hits, misses and evictions as cache_gets / cache_evictions{cache="verifiedTokens"}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "verifiedTokens");
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);   // mandatory in every JRE
+        }
+    }
+
+    private record UntilTokenExpiry(Duration maxTtl) implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            Duration untilExp = Duration.between(Instant.now(), claims.expiresAt());
+            if (untilExp.isNegative()) {
+                return 0;
+            }
+            return Math.min(untilExp.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.phyo.food_management_system.service;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+public interface LeaderElectionService {
+
+    // Runs the job only if this node holds (or can take) the cluster-wide lease for jobName.
+    // The lease is kept for at least lockAtLeastFor, so other nodes skip their ticks of the same period.
+    boolean runIfLeader(String jobName, Duration lockAtLeastFor, LeaderJob job);
+
+    interface LeaderJob {
+
+        // leaseHeld turns false once the lease is lost (a heartbeat was refused or it ran out unrenewed);
+        // another node may then start the same job, so check it between units of work and stop
+        void run(BooleanSupplier leaseHeld);
+    }
+}
@@ -18,8 +18,8 @@ public interface MenuService {
     // Get Menu by Menu ID (ADMIN only)
     MenuResponseDto getMenuByMenuId(String menuId);
 
-    // Update Menu Item (ADMIN only)
-    MenuResponseDto updateMenuItem(String menuId, MenuRequestDto menuRequestDto);
+    // Update Menu Item (ADMIN only); expectedVersion from If-Match, null = the version just read
+    MenuResponseDto updateMenuItem(String menuId, MenuRequestDto menuRequestDto, Long expectedVersion);
 
     // Remove Menu Item (ADMIN only)
     void deleteMenuItem(String menuId);
@@ -2,16 +2,18 @@ package com.phyo.food_management_system.service;
 
 import com.phyo.food_management_system.dto.request.OrderRequestDto;
 import com.phyo.food_management_system.dto.response.OrderResponseDto;
-import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.dto.response.PageResponseDto;
 import com.phyo.food_management_system.model.OrderStatus;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     // Place an order (USER only)
-    OrderResponseDto placeOrder(OrderRequestDto orderRequestDto);
+    // idempotencyKey from the Idempotency-Key header; a repeated key returns the order it first created
+    // (replayed = true) instead of placing another one. null = no idempotency
+    PlacedOrder placeOrder(OrderRequestDto orderRequestDto, String idempotencyKey);
 
     // Get order details by orderId (USER/ADMIN)
     OrderResponseDto getOrderById(String orderId);
@@ -19,16 +21,17 @@ public interface OrderService {
     // List orders of a specific user (ADMIN only)
     List<OrderResponseDto> getOrdersByUserId(String userId);
 
-    // List all orders (ADMIN)
-    List<OrderResponseDto> getAllOrders();
+    // List all orders one page at a time (ADMIN)
+    PageResponseDto<OrderResponseDto> getAllOrders(int limit, String nextToken);
+
+    // Stream all orders page by page to the consumer (ADMIN export)
+    void streamAllOrders(Consumer<List<OrderResponseDto>> pageConsumer);
 
     // Update order status (USER/ADMIN)
-    OrderResponseDto updateOrderStatus(String orderId, OrderStatus newStatus);
+    // expectedVersion from If-Match; null = any version
+    OrderResponseDto updateOrderStatus(String orderId, OrderStatus newStatus, Long expectedVersion);
 
     // Cancel Order
     OrderResponseDto cancelOrder(String orderId);
 
-    //Get all stuck orders
-    List<Order> getStuckOrders(LocalDateTime cutoffTime);
-
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.phyo.food_management_system.service;
+
+import com.phyo.food_management_system.dto.response.OrderResponseDto;
+
+// Result of placing an order; replayed = the Idempotency-Key was seen before and no new order was created
+public record PlacedOrder(OrderResponseDto order, boolean replayed) {
+}
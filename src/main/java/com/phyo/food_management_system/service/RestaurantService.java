@@ -13,7 +13,8 @@ public interface RestaurantService {
 
     List<RestaurantResponseDto> getAllRestaurants();
 
-    RestaurantResponseDto updateRestaurant(String restaurantId, Restaurant updatedRestaurant);
+    // expectedVersion from If-Match (no read needed); null = the version currently stored
+    RestaurantResponseDto updateRestaurant(String restaurantId, Restaurant updatedRestaurant, Long expectedVersion);
 
     void deleteRestaurant(String restaurantId);
 
@@ -0,0 +1,7 @@
+package com.phyo.food_management_system.service;
+
+public interface StuckOrderSweepService {
+
+    // Cancel every order that has been PREPARING for longer than the configured threshold
+    void sweepStuckOrders();
+}
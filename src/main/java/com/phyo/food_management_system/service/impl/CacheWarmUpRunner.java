@@ -0,0 +1,153 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.phyo.food_management_system.dto.response.RestaurantResponseDto;
+import com.phyo.food_management_system.service.MenuService;
+import com.phyo.food_management_system.service.RestaurantService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Preloads the restaurant catalogue and the menus of the top-N restaurants before the application
+// reports ready (runners complete before ApplicationReadyEvent), so the first traffic after a deploy
+// does not all miss the caches at once. Loads go through the services, i.e. through the same caches
+// requests use, in parallel and paced to at most `rate` loads per second.
+// Warm-up never fails startup: errors are logged and the remaining time limit is respected.
+@Component
+@Slf4j
+public class CacheWarmUpRunner implements ApplicationRunner {
+
+    private final RestaurantService restaurantService;
+    private final MenuService menuService;
+    private final ApplicationStartup applicationStartup;
+    private final boolean enabled;
+    private final int topRestaurants;
+    private final List<String> restaurantIds;
+    private final int threads;
+    private final long nanosPerLoad;
+    private final Duration timeout;
+    private final AtomicLong nextLoadAt = new AtomicLong(Long.MIN_VALUE);
+
+    public CacheWarmUpRunner(RestaurantService restaurantService,
+                             MenuService menuService,
+                             ApplicationStartup applicationStartup,
+                             @Value("${app.cache.warm-up.enabled:true}") boolean enabled,
+                             @Value("${app.cache.warm-up.top-restaurants:50}") int topRestaurants,
+                             @Value("${app.cache.warm-up.restaurant-ids:}") List<String> restaurantIds,
+                             @Value("${app.cache.warm-up.threads:4}") int threads,
+                             @Value("${app.cache.warm-up.rate:50}") int loadsPerSecond,
+                             @Value("${app.cache.warm-up.timeout:60s}") Duration timeout) {
+        this.restaurantService = restaurantService;
+        this.menuService = menuService;
+        this.applicationStartup = applicationStartup;
+        this.enabled = enabled;
+        this.topRestaurants = topRestaurants;
+        this.restaurantIds = restaurantIds.stream().filter(id -> !id.isBlank()).toList();
+        this.threads = threads;
+        this.nanosPerLoad = TimeUnit.SECONDS.toNanos(1) / Math.max(1, loadsPerSecond);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        StartupStep step = applicationStartup.start("app.cache.warm-up");
+        long start = System.nanoTime();
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try {
+            List<RestaurantResponseDto> restaurants;
+            try {
+                restaurants = restaurantService.getAllRestaurants();
+            } catch (Exception e) {
+                log.warn("Cache warm-up skipped: could not load the restaurant catalogue : {}",
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                step.tag("outcome", "skipped");
+                return;
+            }
+
+            // Configured ids (e.g. the most ordered restaurants) first, otherwise the first N of the catalogue
+            List<String> topIds = restaurantIds.isEmpty()
+                    ? restaurants.stream().limit(topRestaurants).map(RestaurantResponseDto::getId).toList()
+                    : restaurantIds.stream().limit(topRestaurants).toList();
+
+            warmUp(topIds, warmed, failed);
+
+            step.tag("restaurants", String.valueOf(restaurants.size()));
+            step.tag("menus", String.valueOf(warmed.get()));
+            step.tag("failed", String.valueOf(failed.get()));
+            log.info("Cache warm-up: catalogue of {} restaurants, {} menus warmed, {} failed in {} ms",
+                    restaurants.size(), warmed.get(), failed.get(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } finally {
+            step.end();
+        }
+    }
+
+    private void warmUp(List<String> ids, AtomicInteger warmed, AtomicInteger failed) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("CacheWarmUpThread-", 1).daemon().factory());
+        try {
+            CompletableFuture.allOf(ids.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> warmUp(id, warmed, failed), executor))
+                    .toArray(CompletableFuture[]::new)
+            ).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up stopped after {}: the remaining menus load on first use", timeout);
+        } catch (Exception e) {
+            log.warn("Cache warm-up interrupted : {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp(String restaurantId, AtomicInteger warmed, AtomicInteger failed) {
+        try {
+            if (!awaitRate()) {
+                return;
+            }
+            restaurantService.getRestaurantById(restaurantId);
+            if (!awaitRate()) {
+                return;
+            }
+            menuService.getMenuItemsByRestaurantId(restaurantId);
+            warmed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.debug("Cache warm-up of restaurant {} failed : {}", restaurantId, e.getMessage());
+        }
+    }
+
+    // Hands out one load slot every nanosPerLoad across all warm-up threads;
+    // false once the warm-up has timed out (the pool was shut down)
+    private boolean awaitRate() {
+        long now = System.nanoTime();
+        long slot = Math.max(now,
+                nextLoadAt.getAndAccumulate(now, (next, current) -> Math.max(next, current) + nanosPerLoad));
+        while (slot - System.nanoTime() > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(slot - System.nanoTime());
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+}
@@ -1,6 +1,8 @@
 package com.phyo.food_management_system.service.impl;
 
 import com.phyo.food_management_system.service.EmailService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
@@ -16,11 +18,20 @@ import java.time.LocalDateTime;
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final ObservationRegistry observationRegistry;
 
 
-    // Send an email asynchronously
+    // Send an email asynchronously; the "email.send" span continues the caller's trace
+    // (asyncTaskExecutor propagates the observation context)
     @Async("asyncTaskExecutor")
     public void sendEmail(String to, String subject, String body) {
+        Observation observation = Observation.createNotStarted("email.send", observationRegistry)
+                .contextualName("email send")
+                .highCardinalityKeyValue("email.subject", subject);
+        observation.observe(() -> send(to, subject, body, observation));
+    }
+
+    private void send(String to, String subject, String body, Observation observation) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setTo(to);
@@ -30,6 +41,7 @@ public class EmailServiceImpl implements EmailService {
             log.info("sendEmail is triggered by {} at {}" , Thread.currentThread().getName() ,
                     LocalDateTime.now());
         } catch (Exception e) {
+            observation.error(e);   // swallowed here, so mark the span failed explicitly
             log.error("Failed to send email: {}" , e.getMessage());
         }
     }
@@ -0,0 +1,138 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.phyo.food_management_system.repository.JobLockRepository;
+import com.phyo.food_management_system.service.LeaderElectionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Leader election over the DynamoDB "locks" table: a node runs a job only while it holds the job's lease.
+// The lease is renewed by heartbeats while the job runs; if the node dies the lease simply expires and
+// the next node whose schedule fires takes over.
+@Service
+@Slf4j
+public class LeaderElectionServiceImpl implements LeaderElectionService {
+
+    private final JobLockRepository jobLockRepository;
+    private final boolean enabled;
+    private final boolean createTable;
+    private final Duration lease;
+    private final String nodeId;
+
+    private final AtomicBoolean tableReady = new AtomicBoolean(false);
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LockHeartbeatThread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LeaderElectionServiceImpl(JobLockRepository jobLockRepository,
+                                     @Value("${app.scheduling.lock.enabled:true}") boolean enabled,
+                                     @Value("${app.scheduling.lock.create-table:true}") boolean createTable,
+                                     @Value("${app.scheduling.lock.lease:60s}") Duration lease) {
+        this.jobLockRepository = jobLockRepository;
+        this.enabled = enabled;
+        this.createTable = createTable;
+        this.lease = lease;
+        this.nodeId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public boolean runIfLeader(String jobName, Duration lockAtLeastFor, LeaderJob job) {
+        if (!enabled) {
+            job.run(() -> true);
+            return true;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        if (!acquire(jobName, startedAt)) {
+            log.debug("{} skipped: lease is held by another node", jobName);
+            return false;
+        }
+
+        // Held while no heartbeat was refused and the last successful one has not run out
+        AtomicBoolean lost = new AtomicBoolean(false);
+        AtomicLong heldUntil = new AtomicLong(startedAt + lease.toMillis());
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> renew(jobName, lost, heldUntil),
+                lease.toMillis() / 3, lease.toMillis() / 3, TimeUnit.MILLISECONDS);
+        try {
+            job.run(() -> !lost.get() && System.currentTimeMillis() < heldUntil.get());
+            return true;
+        } finally {
+            heartbeat.cancel(false);
+            if (!lost.get()) {
+                releaseAfter(jobName, startedAt + lockAtLeastFor.toMillis());
+            }
+        }
+    }
+
+    private boolean acquire(String jobName, long now) {
+        try {
+            ensureTable();
+            return jobLockRepository.tryAcquire(jobName, nodeId, now + lease.toMillis(), now);
+        } catch (Exception e) {
+            log.error("Could not acquire lock {} : {}", jobName, e.getMessage());
+            return false;
+        }
+    }
+
+    private void renew(String jobName, AtomicBoolean lost, AtomicLong heldUntil) {
+        try {
+            long until = System.currentTimeMillis() + lease.toMillis();
+            if (jobLockRepository.extend(jobName, nodeId, until)) {
+                heldUntil.set(until);
+            } else {
+                lost.set(true);
+                log.warn("Lost lease {} while the job was still running: the job stops at its next check", jobName);
+            }
+        } catch (Exception e) {
+            // Still ours until heldUntil; the next heartbeat may get through
+            log.warn("Heartbeat for lock {} failed : {}", jobName, e.getMessage());
+        }
+    }
+
+    // Keep the lease until lockAtLeastFor has passed so the same period is not run again elsewhere
+    private void releaseAfter(String jobName, long holdUntil) {
+        try {
+            if (holdUntil > System.currentTimeMillis()) {
+                jobLockRepository.extend(jobName, nodeId, holdUntil);
+            } else {
+                jobLockRepository.release(jobName, nodeId);
+            }
+        } catch (Exception e) {
+            log.warn("Could not release lock {} : {}", jobName, e.getMessage());
+        }
+    }
+
+    private void ensureTable() throws InterruptedException {
+        if (createTable && !tableReady.get()) {
+            jobLockRepository.createTableIfNotExists();
+            tableReady.set(true);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+}
@@ -1,16 +1,23 @@
 package com.phyo.food_management_system.service.impl;
 
+import com.phyo.food_management_system.cache.CacheNames;
 import com.phyo.food_management_system.dto.request.MenuRequestDto;
 import com.phyo.food_management_system.dto.response.MenuResponseDto;
 import com.phyo.food_management_system.exception.MenuNotFoundException;
 import com.phyo.food_management_system.exception.RestaurantNotFoundException;
 import com.phyo.food_management_system.model.Menu;
 import com.phyo.food_management_system.repository.MenuRepository;
+import com.phyo.food_management_system.repository.PatchResult;
 import com.phyo.food_management_system.repository.RestaurantRepository;
 import com.phyo.food_management_system.service.MenuService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -23,8 +30,13 @@ public class MenuServiceImpl implements MenuService {
 
     private final MenuRepository menuRepository;
     private final RestaurantRepository restaurantRepository; // To verify restaurant exists
+    private final CacheManager cacheManager;
 
     @Override
+    @Caching(
+            put = @CachePut(value = CacheNames.MENU_ITEM, key = "#result.menuId"),
+            evict = @CacheEvict(value = CacheNames.RESTAURANT_MENU, key = "#dto.restaurantId")
+    )
     public MenuResponseDto addMenuItem(MenuRequestDto dto) {
 
         // Check if restaurant exists
@@ -42,7 +54,7 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    @Cacheable(value = "menuItems", key = "#restaurantId")
+    @Cacheable(value = CacheNames.RESTAURANT_MENU, key = "#restaurantId", sync = true)
     public List<MenuResponseDto> getMenuItemsByRestaurantId(String restaurantId) {
         log.info("Fetching menus from database (not cache)");
         // Optional: check restaurant exists (recommended)
@@ -54,7 +66,7 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    @Cacheable(value = "menuItems", key = "#menuId")
+    @Cacheable(value = CacheNames.MENU_ITEM, key = "#menuId", sync = true)
     public MenuResponseDto getMenuByMenuId(String menuId) {
         log.info("Fetching menu from database (not cache)");
         Menu menu = menuRepository.getMenuItemById(menuId).orElseThrow(() -> new MenuNotFoundException(menuId));
@@ -62,23 +74,42 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    public MenuResponseDto updateMenuItem(String menuId, MenuRequestDto dto) {
-
-        Menu existingMenu = menuRepository.getMenuItemById(menuId)
-                .orElseThrow(() -> new MenuNotFoundException(menuId));
-
-        existingMenu.setName(dto.getName());
-        existingMenu.setDescription(dto.getDescription());
-        existingMenu.setPrice(dto.getPrice());
-        existingMenu.setRestaurantId(dto.getRestaurantId());
-
-        Menu menu = menuRepository.updateMenuItem(menuId,existingMenu);
+    @Caching(
+            put = @CachePut(value = CacheNames.MENU_ITEM, key = "#menuId"),
+            evict = @CacheEvict(value = CacheNames.RESTAURANT_MENU, key = "#result.restaurantId")
+    )
+    public MenuResponseDto updateMenuItem(String menuId, MenuRequestDto dto, Long expectedVersion) {
+
+        Menu changes = new Menu();
+        changes.setName(dto.getName());
+        changes.setDescription(dto.getDescription());
+        changes.setPrice(dto.getPrice());
+        changes.setRestaurantId(dto.getRestaurantId());
+
+        // One conditional UpdateItem; the item as it was before tells which restaurant it came from
+        PatchResult<Menu> result = menuRepository.updateMenuItem(menuId, changes, expectedVersion);
+        Menu menu = result.after();
+
+        // Moving the item to another restaurant also changes the old restaurant's menu
+        String previousRestaurantId = result.before().getRestaurantId();
+        if (previousRestaurantId != null && !previousRestaurantId.equals(menu.getRestaurantId())) {
+            evictRestaurantMenu(previousRestaurantId);
+        }
         return toMenuResponseDto(menu);
     }
 
     @Override
+    @CacheEvict(value = CacheNames.MENU_ITEM, key = "#menuId")
     public void deleteMenuItem(String menuId) {
-        menuRepository.deleteMenuItem(menuId);
+        Menu deletedMenu = menuRepository.deleteMenuItem(menuId);
+        evictRestaurantMenu(deletedMenu.getRestaurantId());
+    }
+
+    private void evictRestaurantMenu(String restaurantId) {
+        Cache restaurantMenus = cacheManager.getCache(CacheNames.RESTAURANT_MENU);
+        if (restaurantMenus != null) {
+            restaurantMenus.evict(restaurantId);
+        }
     }
 
     @Override
@@ -89,7 +120,8 @@ public class MenuServiceImpl implements MenuService {
                 menu.getRestaurantId(),
                 menu.getName(),
                 menu.getDescription(),
-                menu.getPrice()
+                menu.getPrice(),
+                menu.getVersion()
         );
     }
 }
@@ -0,0 +1,125 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.repository.OrderRepository;
+import com.phyo.food_management_system.service.LeaderElectionService;
+import com.phyo.food_management_system.util.OrderItemsAttributeTransformer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+// One-off rewrite of Order.items from the legacy JSON string to the native list-of-maps form (see
+// OrderItemListConverter), in place and in the background after startup. Off by default; switch it on for
+// one deploy once every node runs with app.order.items.write-format=native (it refuses to run before).
+// Only the node holding the "order-items-migration" lease runs it. The legacy rows come from a parallel
+// segmented scan, and each batch is rewritten with `threads` conditional UpdateItems at a time.
+// Rows that fail are logged and left as they are (they stay readable); running it again picks them up.
+@Component
+@Slf4j
+public class OrderItemsMigrationRunner implements ApplicationRunner {
+
+    private static final String LOCK_NAME = "order-items-migration";
+
+    private final OrderRepository orderRepository;
+    private final LeaderElectionService leaderElectionService;
+    private final OrderItemsAttributeTransformer.WriteFormat itemsWriteFormat;
+    private final boolean enabled;
+    private final int threads;
+    private final int batchSize;
+
+    public OrderItemsMigrationRunner(OrderRepository orderRepository,
+                                     LeaderElectionService leaderElectionService,
+                                     OrderItemsAttributeTransformer orderItemsAttributeTransformer,
+                                     @Value("${app.order.items-migration.enabled:false}") boolean enabled,
+                                     @Value("${app.order.items-migration.threads:8}") int threads,
+                                     @Value("${app.order.items-migration.batch-size:100}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.leaderElectionService = leaderElectionService;
+        this.itemsWriteFormat = orderItemsAttributeTransformer.getWriteFormat();
+        this.enabled = enabled;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        if (itemsWriteFormat != OrderItemsAttributeTransformer.WriteFormat.NATIVE) {
+            // nodes still writing JSON may be ones that cannot read the native form
+            log.warn("Order items migration skipped: app.order.items.write-format is not native");
+            return;
+        }
+        Thread.ofPlatform().name("OrderItemsMigrationThread").daemon().start(() -> {
+            try {
+                if (!leaderElectionService.runIfLeader(LOCK_NAME, Duration.ZERO, this::migrate)) {
+                    log.info("Order items migration skipped: another node is running it");
+                }
+            } catch (Exception e) {
+                log.error("Order items migration failed : {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    void migrate(BooleanSupplier leaseHeld) {
+        long start = System.nanoTime();
+        AtomicInteger migrated = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("OrderItemsMigrationThread-", 1).daemon().factory());
+        try (Stream<Order> orders = orderRepository.streamOrdersWithLegacyItems()) {
+            Iterator<Order> iterator = orders.iterator();
+            List<Order> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                if (!leaseHeld.getAsBoolean()) {
+                    log.warn("Order items migration stopped: lease lost (running it again resumes)");
+                    break;
+                }
+                batch.add(iterator.next());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    CompletableFuture.allOf(batch.stream()
+                            .map(order -> CompletableFuture.runAsync(
+                                    () -> migrate(order, migrated, skipped, failed), executor))
+                            .toArray(CompletableFuture[]::new)
+                    ).join();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Order items migration: migrated {}, skipped {}, failed {} in {} ms",
+                migrated.get(), skipped.get(), failed.get(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void migrate(Order order, AtomicInteger migrated, AtomicInteger skipped, AtomicInteger failed) {
+        try {
+            if (orderRepository.migrateItems(order)) {
+                migrated.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Failed to migrate items of order {} : {}", order.getOrderId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import com.phyo.food_management_system.dto.response.OrderItemResponseDto;
+import com.phyo.food_management_system.dto.response.OrderResponseDto;
+import com.phyo.food_management_system.exception.RestaurantNotFoundException;
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.model.OrderItem;
+import com.phyo.food_management_system.model.Restaurant;
+import com.phyo.food_management_system.model.User;
+import com.phyo.food_management_system.repository.RestaurantRepository;
+import com.phyo.food_management_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Builds OrderResponseDto pages: the user and restaurant names of a whole page of orders
+// are resolved with one batch read each, through a short-lived local name cache.
+@Component
+public class OrderResponseAssembler implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final Cache<String, String> userNames;
+    private final Cache<String, String> restaurantNames;
+
+    public OrderResponseAssembler(UserRepository userRepository,
+                                  RestaurantRepository restaurantRepository,
+                                  @Value("${app.order.enrichment.cache-ttl:30s}") Duration cacheTtl,
+                                  @Value("${app.order.enrichment.cache-size:10000}") long cacheSize) {
+        this.userRepository = userRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.userNames = Caffeine.newBuilder().expireAfterWrite(cacheTtl).maximumSize(cacheSize).recordStats().build();
+        this.restaurantNames = Caffeine.newBuilder().expireAfterWrite(cacheTtl).maximumSize(cacheSize).recordStats().build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userNames, "orderUserNames");
+        CaffeineCacheMetrics.monitor(registry, restaurantNames, "orderRestaurantNames");
+    }
+
+    public OrderResponseDto toOrderResponseDto(Order order) {
+        return toOrderResponseDtos(List.of(order)).get(0);
+    }
+
+    public List<OrderResponseDto> toOrderResponseDtos(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, String> users = resolveNames(
+                orders.stream().map(Order::getUserId).collect(Collectors.toSet()),
+                userNames,
+                ids -> userRepository.getUsersByIds(ids).values().stream()
+                        .collect(Collectors.toMap(User::getUserId, user -> Objects.requireNonNullElse(user.getUsername(), "")))
+        );
+        Map<String, String> restaurants = resolveNames(
+                orders.stream().map(Order::getRestaurantId).collect(Collectors.toSet()),
+                restaurantNames,
+                ids -> restaurantRepository.getRestaurantsByIds(ids).values().stream()
+                        .collect(Collectors.toMap(Restaurant::getRestaurantId, restaurant -> Objects.requireNonNullElse(restaurant.getName(), "")))
+        );
+
+        // Collectors.toList(): the result is cached, and the typed Redis serializers cannot rebuild
+        // the JDK's immutable lists (Stream.toList / List.of) on the way back
+        return orders.stream()
+                .map(order -> toOrderResponseDto(order, users, restaurants))
+                .collect(Collectors.toList());
+    }
+
+    // Cached names first, then a single batch read for whatever is left
+    private Map<String, String> resolveNames(Set<String> ids,
+                                             Cache<String, String> cache,
+                                             Function<Collection<String>, Map<String, String>> batchLoader) {
+        Map<String, String> names = new HashMap<>(cache.getAllPresent(ids));
+
+        Set<String> missingIds = ids.stream()
+                .filter(id -> !names.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            Map<String, String> loaded = batchLoader.apply(missingIds);
+            cache.putAll(loaded);
+            names.putAll(loaded);
+        }
+        return names;
+    }
+
+    private OrderResponseDto toOrderResponseDto(Order order, Map<String, String> users, Map<String, String> restaurants) {
+
+        String userName = users.get(order.getUserId());
+        if (userName == null) {
+            throw new UsernameNotFoundException(order.getUserId());
+        }
+        String restaurantName = restaurants.get(order.getRestaurantId());
+        if (restaurantName == null) {
+            throw new RestaurantNotFoundException(order.getRestaurantId());
+        }
+
+        OrderResponseDto dto = new OrderResponseDto();
+        dto.setOrderId(order.getOrderId());
+        dto.setUserId(order.getUserId());
+        dto.setRestaurantId(order.getRestaurantId());
+        dto.setUserName(userName);
+        dto.setRestaurantName(restaurantName);
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setStatus(order.getStatus().name());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+        dto.setVersion(order.getVersion());
+
+        // Convert list of items
+        List<OrderItemResponseDto> itemDtos = order.getItems().stream()
+                .map(this::toOrderItemResponseDto)
+                .collect(Collectors.toList());
+
+        dto.setItems(itemDtos);
+
+        return dto;
+    }
+
+    private OrderItemResponseDto toOrderItemResponseDto(OrderItem item) {
+
+        OrderItemResponseDto dto = new OrderItemResponseDto();
+        dto.setMenuItemId(item.getMenuItemId());
+        dto.setQuantity(item.getQuantity());
+        dto.setPrice(item.getPrice());
+        dto.setTotalPrice(item.getTotalPrice());
+
+        return dto;
+    }
+}
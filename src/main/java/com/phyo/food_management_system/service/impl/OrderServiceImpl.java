@@ -1,52 +1,145 @@
 package com.phyo.food_management_system.service.impl;
 
+import com.phyo.food_management_system.cache.CacheNames;
 import com.phyo.food_management_system.dto.request.OrderRequestDto;
-import com.phyo.food_management_system.dto.response.OrderItemResponseDto;
 import com.phyo.food_management_system.dto.response.OrderResponseDto;
-import com.phyo.food_management_system.exception.MenuNotFoundException;
+import com.phyo.food_management_system.dto.response.PageResponseDto;
+import com.phyo.food_management_system.exception.IdempotencyKeyReusedException;
 import com.phyo.food_management_system.exception.OrderNotFoundException;
-import com.phyo.food_management_system.exception.RestaurantNotFoundException;
 import com.phyo.food_management_system.model.*;
 import com.phyo.food_management_system.repository.MenuRepository;
 import com.phyo.food_management_system.repository.OrderRepository;
-import com.phyo.food_management_system.repository.RestaurantRepository;
-import com.phyo.food_management_system.repository.UserRepository;
+import com.phyo.food_management_system.repository.ResultPage;
 import com.phyo.food_management_system.security.CustomUserDetails;
 import com.phyo.food_management_system.service.OrderService;
-import lombok.RequiredArgsConstructor;
+import com.phyo.food_management_system.service.PlacedOrder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final OrderRepository orderRepository;
     private final MenuRepository menuRepository;
-    private final UserRepository userRepository;
-    private final RestaurantRepository restaurantRepository;
+    private final OrderResponseAssembler orderResponseAssembler;
+    private final CacheManager cacheManager;
+    private final Duration idempotencyTtl;
+
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            MenuRepository menuRepository,
+                            OrderResponseAssembler orderResponseAssembler,
+                            CacheManager cacheManager,
+                            @Value("${app.order.idempotency.ttl:24h}") Duration idempotencyTtl) {
+        this.orderRepository = orderRepository;
+        this.menuRepository = menuRepository;
+        this.orderResponseAssembler = orderResponseAssembler;
+        this.cacheManager = cacheManager;
+        this.idempotencyTtl = idempotencyTtl;
+    }
 
     @Override
-    @CachePut(value = "orders", key = "#result.orderId")
-    public OrderResponseDto placeOrder(OrderRequestDto orderRequestDto) {
+    @Caching(
+            put = @CachePut(value = CacheNames.ORDER, key = "#result.order().orderId", unless = "#result.replayed()"),
+            evict = @CacheEvict(value = CacheNames.USER_ORDERS, key = "#result.order().userId")
+    )
+    public PlacedOrder placeOrder(OrderRequestDto orderRequestDto, String idempotencyKey) {
 
         // Get logged-in user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
         String userId = userDetails.getUserId();
 
-        // Convert DTO → Order entity
+        if (idempotencyKey == null) {
+            Order savedOrder = orderRepository.placeOrder(toOrder(orderRequestDto, userId));
+            return new PlacedOrder(orderResponseAssembler.toOrderResponseDto(savedOrder), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        String recordKey = userId + "#" + idempotencyKey;
+        String requestHash = requestHash(orderRequestDto);
+        String replayKey = recordKey + "#" + requestHash;
+
+        // Retries of a request that already went through are answered from the cache: no menu reads, no write
+        Cache replays = cacheManager.getCache(CacheNames.IDEMPOTENT_ORDER);
+        OrderResponseDto cached = replays != null ? replays.get(replayKey, OrderResponseDto.class) : null;
+        if (cached != null) {
+            log.info("Replaying order {} for Idempotency-Key {}", cached.getOrderId(), idempotencyKey);
+            return new PlacedOrder(cached, true);
+        }
+
+        Order order = toOrder(orderRequestDto, userId);
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setIdempotencyKey(recordKey);
+        idempotencyRecord.setRequestHash(requestHash);
+        idempotencyRecord.setExpiresAt(Instant.now().plus(idempotencyTtl).getEpochSecond());
+
+        PlacedOrder placed;
+        if (orderRepository.placeOrder(order, idempotencyRecord)) {
+            placed = new PlacedOrder(orderResponseAssembler.toOrderResponseDto(order), false);
+        } else {
+            // Key already taken (a concurrent retry or one the cache no longer knows): answer with its order
+            IdempotencyRecord existing = orderRepository.getIdempotencyRecord(recordKey)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency-Key " + idempotencyKey + " vanished"));
+            if (!requestHash.equals(existing.getRequestHash())) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            // Consistent: the winning transaction may have committed only just now
+            Order original = orderRepository.getOrderByOrderIdConsistently(existing.getOrderId())
+                    .orElseThrow(() -> new OrderNotFoundException(existing.getOrderId()));
+            asPlaced(original, existing);
+            log.info("Replaying order {} for Idempotency-Key {}", original.getOrderId(), idempotencyKey);
+            placed = new PlacedOrder(orderResponseAssembler.toOrderResponseDto(original), true);
+        }
+        if (replays != null) {
+            replays.put(replayKey, placed.order());
+        }
+        return placed;
+    }
+
+    // Rolls the fields that may have changed since (status updates, cancellation) back to the placed order
+    private static void asPlaced(Order order, IdempotencyRecord idempotencyRecord) {
+        if (idempotencyRecord.getOrderStatus() == null) {
+            return;     // record written before the placed order was kept on it
+        }
+        order.setStatus(idempotencyRecord.getOrderStatus());
+        order.setTotalPrice(idempotencyRecord.getOrderTotalPrice());
+        order.setUpdatedAt(idempotencyRecord.getOrderUpdatedAt());
+        order.setVersion(idempotencyRecord.getOrderVersion());
+    }
+
+    // Convert DTO → Order entity, priced from the current menu
+    private Order toOrder(OrderRequestDto orderRequestDto, String userId) {
         Order order = new Order();
         order.setUserId(userId);
         order.setRestaurantId(orderRequestDto.getRestaurantId());
@@ -58,10 +151,16 @@ public class OrderServiceImpl implements OrderService {
 
         List<OrderItem> orderItems = new ArrayList<>();
 
-        for (OrderRequestDto.OrderItemRequestDto itemDto : orderRequestDto.getItems()) {
+        // Load every menu item of the cart in one batch instead of one read per line
+        Map<String, Menu> menuItems = menuRepository.getMenuItemsByIds(
+                orderRequestDto.getItems().stream()
+                        .map(OrderRequestDto.OrderItemRequestDto::getMenuItemId)
+                        .toList()
+        );
 
-            Menu menuItem = menuRepository.getMenuItemById(itemDto.getMenuItemId()).orElseThrow(() -> new MenuNotFoundException(itemDto.getMenuItemId()));
+        for (OrderRequestDto.OrderItemRequestDto itemDto : orderRequestDto.getItems()) {
 
+            Menu menuItem = menuItems.get(itemDto.getMenuItemId());
 
             double price = menuItem.getPrice();               // price at time of order
             double itemTotal = price * itemDto.getQuantity(); // quantity * price
@@ -81,124 +180,102 @@ public class OrderServiceImpl implements OrderService {
         // Add items and total price to order
         order.setItems(orderItems);
         order.setTotalPrice(total);
+        return order;
+    }
 
-        // Save to DynamoDB
-        Order savedOrder = orderRepository.placeOrder(order);
-        return toOrderResponseDto(savedOrder);
-
+    // What the order is made of (restaurant, then each line in order), so a reused key with another cart is caught
+    private static String requestHash(OrderRequestDto orderRequestDto) {
+        StringBuilder canonical = new StringBuilder(String.valueOf(orderRequestDto.getRestaurantId()));
+        for (OrderRequestDto.OrderItemRequestDto item : orderRequestDto.getItems()) {
+            canonical.append('|').append(item.getMenuItemId()).append(':').append(item.getQuantity());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
 
     // Get order by orderId (USER/ADMIN)
     @Override
-    @Cacheable(value = "orders", key = "#orderId")
+    @Cacheable(value = CacheNames.ORDER, key = "#orderId", sync = true)
     public OrderResponseDto getOrderById(String orderId) {
         log.info("Fetching order from database (not cache)");
         Order order = orderRepository.getOrderByOrderId(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
-        return toOrderResponseDto(order);
+        return orderResponseAssembler.toOrderResponseDto(order);
     }
 
 
     // List orders by userId (ADMIN)
     @Override
-    @Cacheable(value = "orders", key = "#userId")
+    @Cacheable(value = CacheNames.USER_ORDERS, key = "#userId", sync = true)
     public List<OrderResponseDto> getOrdersByUserId(String userId) {
         log.info("Fetching orders from database (not cache)");
         List<Order> orders = orderRepository.getOrdersByUserId(userId);
 
-        return orders.stream()
-                .map(this::toOrderResponseDto)
-                .collect(Collectors.toList());
+        return orderResponseAssembler.toOrderResponseDtos(orders);
     }
 
-    // List all orders (ADMIN)
+    // List all orders one page at a time (ADMIN)
     @Override
-    @Cacheable(value = "orders")
-    public List<OrderResponseDto> getAllOrders() {
-
-        List<Order> orders = orderRepository.getAllOrders();
-
-        return orders.stream()
-                .map(this::toOrderResponseDto)
-                .collect(Collectors.toList());
-    }
-
+    public PageResponseDto<OrderResponseDto> getAllOrders(int limit, String nextToken) {
 
-    // Update order status (USER/ADMIN)
-    @Override
-    @CachePut(value = "orders", key = "#result.orderId")
-    public OrderResponseDto updateOrderStatus(String orderId, OrderStatus newStatus) {
-
-        // Ensure the order exists
-        orderRepository.getOrderByOrderId(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-
-        // Update and return
-        Order updatedOrder = orderRepository.updateOrderStatus(orderId, newStatus);
-
-        return toOrderResponseDto(updatedOrder);
-    }
-
-    @Override
-    @CachePut(value = "orders", key = "#orderId")
-    public OrderResponseDto cancelOrder(String orderId) {
-        Order order = orderRepository.getOrderByOrderId(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot cancel this order");
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1-" + MAX_PAGE_SIZE);
         }
+        ResultPage<Order> page = orderRepository.getOrdersPage(limit, nextToken);
 
-        Order updatedOrder = orderRepository.updateOrderStatus(orderId, OrderStatus.CANCELLED);
-
-        return toOrderResponseDto(updatedOrder);
+        return new PageResponseDto<>(orderResponseAssembler.toOrderResponseDtos(page.items()), page.nextToken());
     }
 
+    // Stream all orders (ADMIN export) - the table is scanned in parallel segments and
+    // every MAX_PAGE_SIZE orders are enriched and handed over as one page
     @Override
-    public List<Order> getStuckOrders(LocalDateTime cutoffTime) {
-        // Delegate to repository method
-        return orderRepository.findStuckOrders(cutoffTime);
+    public void streamAllOrders(Consumer<List<OrderResponseDto>> pageConsumer) {
+        try (Stream<Order> orders = orderRepository.streamAllOrders()) {
+            List<Order> page = new ArrayList<>(MAX_PAGE_SIZE);
+            orders.forEach(order -> {
+                page.add(order);
+                if (page.size() == MAX_PAGE_SIZE) {
+                    pageConsumer.accept(orderResponseAssembler.toOrderResponseDtos(page));
+                    page.clear();
+                }
+            });
+            if (!page.isEmpty()) {
+                pageConsumer.accept(orderResponseAssembler.toOrderResponseDtos(page));
+            }
+        }
     }
 
 
-    private OrderResponseDto toOrderResponseDto(Order order) {
-
-        User user = userRepository.getUserById(order.getUserId()).orElseThrow(() -> new UsernameNotFoundException(order.getUserId()));
-        Restaurant restaurant = restaurantRepository.getRestaurantById(order.getRestaurantId()).orElseThrow(() -> new RestaurantNotFoundException(order.getRestaurantId()));
-
-        OrderResponseDto dto = new OrderResponseDto();
-        dto.setOrderId(order.getOrderId());
-        dto.setUserId(order.getUserId());
-        dto.setRestaurantId(order.getRestaurantId());
-        dto.setUserName(user.getUsername());
-        dto.setRestaurantName(restaurant.getName());
-        dto.setTotalPrice(order.getTotalPrice());
-        dto.setStatus(order.getStatus().name());
-        dto.setCreatedAt(order.getCreatedAt());
-        dto.setUpdatedAt(order.getUpdatedAt());
-
-        // Convert list of items
-        List<OrderItemResponseDto> itemDtos = order.getItems().stream()
-                .map(this::toOrderItemResponseDto)
-                .toList();
+    // Update order status (USER/ADMIN)
+    @Override
+    @Caching(
+            put = @CachePut(value = CacheNames.ORDER, key = "#result.orderId"),
+            evict = @CacheEvict(value = CacheNames.USER_ORDERS, key = "#result.userId")
+    )
+    public OrderResponseDto updateOrderStatus(String orderId, OrderStatus newStatus, Long expectedVersion) {
 
-        dto.setItems(itemDtos);
+        // Single conditional write: OrderNotFoundException / InvalidOrderStatusTransitionException (409)
+        Order updatedOrder = orderRepository.updateOrderStatus(orderId, newStatus, expectedVersion);
 
-        return dto;
+        return orderResponseAssembler.toOrderResponseDto(updatedOrder);
     }
 
-    private OrderItemResponseDto toOrderItemResponseDto(OrderItem item) {
-
-        OrderItemResponseDto dto = new OrderItemResponseDto();
-        dto.setMenuItemId(item.getMenuItemId());
-        dto.setQuantity(item.getQuantity());
-        dto.setPrice(item.getPrice());
-        dto.setTotalPrice(item.getTotalPrice());
+    @Override
+    @Caching(
+            put = @CachePut(value = CacheNames.ORDER, key = "#result.orderId"),
+            evict = @CacheEvict(value = CacheNames.USER_ORDERS, key = "#result.userId")
+    )
+    public OrderResponseDto cancelOrder(String orderId) {
+        // Only PLACED and PREPARING orders can be cancelled; enforced by the update's condition
+        Order updatedOrder = orderRepository.updateOrderStatus(orderId, OrderStatus.CANCELLED, null);
 
-        return dto;
+        return orderResponseAssembler.toOrderResponseDto(updatedOrder);
     }
 
 }
-
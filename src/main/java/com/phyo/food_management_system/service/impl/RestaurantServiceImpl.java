@@ -1,35 +1,73 @@
 package com.phyo.food_management_system.service.impl;
 
+import com.phyo.food_management_system.cache.CacheInvalidatedEvent;
+import com.phyo.food_management_system.cache.CacheNames;
+import com.phyo.food_management_system.cache.RefreshAheadValue;
 import com.phyo.food_management_system.dto.response.RestaurantResponseDto;
 import com.phyo.food_management_system.exception.RestaurantNotFoundException;
 import com.phyo.food_management_system.model.Restaurant;
 import com.phyo.food_management_system.repository.RestaurantRepository;
 import com.phyo.food_management_system.service.RestaurantService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RestaurantServiceImpl implements RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
+    private final CacheManager cacheManager;
+    // Refresh-ahead mode: the full restaurant list lives in memory, is always answered from there and
+    // is reloaded in the background whenever a restaurant changes on any node, and on a slow schedule
+    private final boolean catalogueEnabled;
+    private final RefreshAheadValue<List<RestaurantResponseDto>> catalogue;
+    // Set by a change: the next reload reads consistently so it sees that write; scheduled ones need not
+    private final AtomicBoolean catalogueChangePending = new AtomicBoolean();
+
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository,
+                                 CacheManager cacheManager,
+                                 @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                                 @Value("${app.restaurant.catalogue.enabled:true}") boolean catalogueEnabled,
+                                 @Value("${app.restaurant.catalogue.refresh-interval:5m}") Duration refreshInterval) {
+        this.restaurantRepository = restaurantRepository;
+        this.cacheManager = cacheManager;
+        this.catalogueEnabled = catalogueEnabled;
+        this.catalogue = new RefreshAheadValue<>("restaurant catalogue",
+                () -> List.copyOf(loadAllRestaurants(catalogueChangePending.getAndSet(false))),
+                cacheRefreshExecutor, refreshInterval.multipliedBy(2));
+    }
 
     @Override
+    @Caching(
+            put = @CachePut(value = CacheNames.RESTAURANT, key = "#result.id"),
+            evict = @CacheEvict(value = CacheNames.RESTAURANT_LIST, key = "'" + CacheNames.ALL_KEY + "'")
+    )
     public RestaurantResponseDto addRestaurant(Restaurant restaurant) {
         restaurantRepository.addRestaurant(restaurant);
+        catalogueChanged();
         return toRestaurantResponseDto(restaurant);
     }
 
     @Override
-    @Cacheable(value = "restaurants", key = "#restaurantId")
+    @Cacheable(value = CacheNames.RESTAURANT, key = "#restaurantId", sync = true)
     public RestaurantResponseDto getRestaurantById(String restaurantId) {
         log.info("Fetching restaurant from database (not cache)");
         Restaurant restaurant = restaurantRepository.getRestaurantById(restaurantId).orElseThrow(() ->new RestaurantNotFoundException(restaurantId));
@@ -38,11 +76,50 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     @Override
-    @Cacheable(value = "restaurants")
     public List<RestaurantResponseDto> getAllRestaurants() {
+        if (catalogueEnabled) {
+            return catalogue.get();     // only the very first call waits for a load
+        }
+        // Read-through the restaurant list cache, single-flight per node like @Cacheable(sync = true)
+        Cache restaurants = cacheManager.getCache(CacheNames.RESTAURANT_LIST);
+        if (restaurants == null) {
+            return loadAllRestaurantsFromDatabase();
+        }
+        return restaurants.get(CacheNames.ALL_KEY, this::loadAllRestaurantsFromDatabase);
+    }
+
+    // Safety net for missed change notifications; reads also trigger a refresh when it is 2x this old
+    @Scheduled(fixedDelayString = "${app.restaurant.catalogue.refresh-interval:5m}",
+            initialDelayString = "${app.restaurant.catalogue.refresh-interval:5m}")
+    public void refreshCatalogue() {
+        if (catalogueEnabled) {
+            catalogue.refreshAsync();
+        }
+    }
+
+    // Another node added, updated or deleted a restaurant (it evicted the restaurant list)
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (CacheNames.RESTAURANT_LIST.equals(event.cacheName())) {
+            catalogueChanged();
+        }
+    }
+
+    private void catalogueChanged() {
+        if (catalogueEnabled && catalogue.isLoaded()) {
+            catalogueChangePending.set(true);
+            catalogue.refreshAsync();
+        }
+    }
+
+    private List<RestaurantResponseDto> loadAllRestaurantsFromDatabase() {
         log.info("Fetching restaurants from database (not cache)");
+        // Consistent: the list is cached in Redis until the next change evicts it
+        return loadAllRestaurants(true);
+    }
 
-        List<Restaurant> restaurants = restaurantRepository.getAllRestaurants();
+    private List<RestaurantResponseDto> loadAllRestaurants(boolean consistentRead) {
+        List<Restaurant> restaurants = restaurantRepository.getAllRestaurants(consistentRead);
 
         return restaurants.stream()
                 .map(this::toRestaurantResponseDto)
@@ -50,14 +127,26 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     @Override
-    public RestaurantResponseDto updateRestaurant(String restaurantId, Restaurant updatedRestaurant) {
-        Restaurant restaurant = restaurantRepository.updateRestaurant(restaurantId,updatedRestaurant);
+    @Caching(
+            put = @CachePut(value = CacheNames.RESTAURANT, key = "#restaurantId"),
+            evict = @CacheEvict(value = CacheNames.RESTAURANT_LIST, key = "'" + CacheNames.ALL_KEY + "'")
+    )
+    public RestaurantResponseDto updateRestaurant(String restaurantId, Restaurant updatedRestaurant, Long expectedVersion) {
+        // A single conditional UpdateItem of the given fields; If-Match additionally pins the version
+        Restaurant restaurant = restaurantRepository.updateRestaurant(restaurantId, updatedRestaurant, expectedVersion);
+        catalogueChanged();
         return toRestaurantResponseDto(restaurant);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.RESTAURANT, key = "#restaurantId"),
+            @CacheEvict(value = CacheNames.RESTAURANT_MENU, key = "#restaurantId"),
+            @CacheEvict(value = CacheNames.RESTAURANT_LIST, key = "'" + CacheNames.ALL_KEY + "'")
+    })
     public void deleteRestaurant(String restaurantId) {
         restaurantRepository.deleteRestaurant(restaurantId);
+        catalogueChanged();
     }
 
     @Override
@@ -67,6 +156,7 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .name(restaurant.getName())
                 .address(restaurant.getAddress())
                 .phone(restaurant.getPhone())
+                .version(restaurant.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,142 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.phyo.food_management_system.cache.CacheNames;
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.model.OrderStatus;
+import com.phyo.food_management_system.repository.OrderRepository;
+import com.phyo.food_management_system.service.LeaderElectionService;
+import com.phyo.food_management_system.service.StuckOrderSweepService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+@Service
+@Slf4j
+public class StuckOrderSweepServiceImpl implements StuckOrderSweepService {
+
+    private static final String LOCK_NAME = "stuck-order-sweep";
+
+    private final OrderRepository orderRepository;
+    private final LeaderElectionService leaderElectionService;
+    private final CacheManager cacheManager;
+    private final Executor sweepTaskExecutor;
+    private final Duration sweepRate;
+    private final Duration stuckAfter;
+    private final int batchSize;
+
+    // Guards against a slow sweep overlapping with the next scheduled run on this node
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public StuckOrderSweepServiceImpl(OrderRepository orderRepository,
+                                      LeaderElectionService leaderElectionService,
+                                      CacheManager cacheManager,
+                                      @Qualifier("sweepTaskExecutor") Executor sweepTaskExecutor,
+                                      @Value("${app.order.sweep.rate:5m}") Duration sweepRate,
+                                      @Value("${app.order.sweep.stuck-after:30m}") Duration stuckAfter,
+                                      @Value("${app.order.sweep.batch-size:25}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.leaderElectionService = leaderElectionService;
+        this.cacheManager = cacheManager;
+        this.sweepTaskExecutor = sweepTaskExecutor;
+        this.sweepRate = sweepRate;
+        this.stuckAfter = stuckAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${app.order.sweep.rate:5m}")
+    @Async("asyncTaskExecutor")
+    public void sweepStuckOrders() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Stuck-order sweep skipped: previous run is still in progress");
+            return;
+        }
+        try {
+            // Only the node holding the cluster-wide lease sweeps; it keeps the lease for most of
+            // the period so the other nodes skip their tick of the same period
+            leaderElectionService.runIfLeader(LOCK_NAME, sweepRate.multipliedBy(4).dividedBy(5), this::sweep);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void sweep(BooleanSupplier leaseHeld) {
+        long start = System.nanoTime();
+        LocalDateTime cutoffTime = LocalDateTime.now().minus(stuckAfter);
+
+        List<String> orderIds = orderRepository.findStuckOrders(cutoffTime).stream()
+                .map(Order::getOrderId)
+                .toList();
+
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        // Conditional cancellations run in parallel, one batch at a time
+        for (int from = 0; from < orderIds.size(); from += batchSize) {
+            if (!leaseHeld.getAsBoolean()) {
+                log.warn("Stuck-order sweep stopped after {} of {} orders: lease lost", from, orderIds.size());
+                break;
+            }
+            List<String> batch = orderIds.subList(from, Math.min(from + batchSize, orderIds.size()));
+
+            CompletableFuture.allOf(batch.stream()
+                    .map(orderId -> CompletableFuture.runAsync(
+                            () -> cancel(orderId, cancelled, skipped, failed), sweepTaskExecutor))
+                    .toArray(CompletableFuture[]::new)
+            ).join();
+        }
+
+        log.info("Stuck-order sweep: found {}, cancelled {}, skipped {}, failed {} in {} ms",
+                orderIds.size(), cancelled.get(), skipped.get(), failed.get(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void cancel(String orderId, AtomicInteger cancelled, AtomicInteger skipped, AtomicInteger failed) {
+        try {
+            // Only cancels if the order is still PREPARING, so a concurrent status change wins
+            Optional<Order> cancelledOrder =
+                    orderRepository.updateOrderStatusIf(orderId, OrderStatus.PREPARING, OrderStatus.CANCELLED);
+            if (cancelledOrder.isPresent()) {
+                cancelled.incrementAndGet();
+                evictCachedOrder(cancelledOrder.get());
+                log.info("Cancelled order: {} by {} ", orderId, Thread.currentThread().getName());
+            } else {
+                skipped.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Failed to cancel order {} : {} ", orderId, e.getMessage());
+        }
+    }
+
+    private void evictCachedOrder(Order order) {
+        try {
+            Cache orders = cacheManager.getCache(CacheNames.ORDER);
+            if (orders != null) {
+                orders.evict(order.getOrderId());
+            }
+            Cache userOrders = cacheManager.getCache(CacheNames.USER_ORDERS);
+            if (userOrders != null) {
+                userOrders.evict(order.getUserId());
+            }
+        } catch (Exception e) {
+            log.warn("Cancelled order {} but could not evict it from the cache : {}", order.getOrderId(), e.getMessage());
+        }
+    }
+}
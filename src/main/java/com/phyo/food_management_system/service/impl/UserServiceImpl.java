@@ -4,6 +4,7 @@ import com.phyo.food_management_system.dto.response.UserResponseDto;
 import com.phyo.food_management_system.exception.UserAlreadyExistsException;
 import com.phyo.food_management_system.model.User;
 import com.phyo.food_management_system.repository.UserRepository;
+import com.phyo.food_management_system.security.PrincipalCache;
 import com.phyo.food_management_system.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public User register(User user) {
@@ -40,22 +42,26 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User updateUser(String userId, User updatedUser) {
-        Optional<User> existing = findByEmail(updatedUser.getEmail());
-
-        if (existing.isPresent() && !existing.get().getUserId().equals(userId)) {
-            // Another user has this email → cannot use
-            throw new UserAlreadyExistsException(
-                    "User with email " + updatedUser.getEmail() + " already exists!"
-            );
+        // Usual case: the email stays the same, which the write checks itself, so no email_index lookup
+        Optional<User> user = userRepository.updateUser(userId, updatedUser, updatedUser.getEmail());
+        if (user.isEmpty()) {
+            // The email is changing: it must not belong to another user
+            Optional<User> existing = findByEmail(updatedUser.getEmail());
+            if (existing.isPresent() && !existing.get().getUserId().equals(userId)) {
+                throw new UserAlreadyExistsException(
+                        "User with email " + updatedUser.getEmail() + " already exists!"
+                );
+            }
+            user = userRepository.updateUser(userId, updatedUser, null);
         }
-
-        // Either no user exists with this email, or it’s the same user → allow update
-        return userRepository.updateUser(userId, updatedUser);
+        principalCache.invalidateUser(userId);
+        return user.orElseThrow();
     }
 
     @Override
     public void deleteUser(String userId) {
         userRepository.deleteUser(userId);
+        principalCache.invalidateUser(userId);
     }
 
     @Override
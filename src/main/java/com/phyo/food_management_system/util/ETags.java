@@ -0,0 +1,40 @@
+package com.phyo.food_management_system.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+// Strong ETags built from the item's version attribute ("3"), and the reverse for If-Match headers
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // 200 with the version as ETag; items written before versioning have none
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag("\"" + version + "\"");
+        }
+        return builder.body(body);
+    }
+
+    // Version named by an If-Match header; null when absent or "*" (any version)
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be a single ETag returned by this API");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.phyo.food_management_system.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.phyo.food_management_system.model.OrderItem;
+
+import java.util.AbstractList;
+import java.util.List;
+
+// Order.items as read from DynamoDB: the attribute value is only decoded into OrderItems on first access,
+// so reads that never look at the items skip that work entirely. Few do: every order response lists the
+// items (status updates and cancellations included), so in practice it is the stuck-order sweep's
+// cancellations, and writes of orders whose items were never read.
+// Decoding is idempotent, so a race between two first readers only costs a second decode.
+final class LazyOrderItemList extends AbstractList<OrderItem> {
+
+    private final AttributeValue source;
+    private volatile List<OrderItem> items;
+
+    LazyOrderItemList(AttributeValue source) {
+        this.source = source;
+    }
+
+    @Override
+    public OrderItem get(int index) {
+        return items().get(index);
+    }
+
+    @Override
+    public int size() {
+        return items().size();
+    }
+
+    AttributeValue source() {
+        return source;
+    }
+
+    // Unread items can be written back as they are
+    boolean isUndecoded() {
+        return items == null;
+    }
+
+    private List<OrderItem> items() {
+        List<OrderItem> decoded = items;
+        if (decoded == null) {
+            decoded = List.copyOf(OrderItemListConverter.decode(source));
+            items = decoded;
+        }
+        return decoded;
+    }
+}
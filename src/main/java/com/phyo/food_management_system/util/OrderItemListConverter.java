@@ -1,27 +1,113 @@
 package com.phyo.food_management_system.util;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phyo.food_management_system.model.OrderItem;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class OrderItemListConverter implements DynamoDBTypeConverter<String, List<OrderItem>> {
+// Order.items either as the JSON string (S) earlier versions wrote, or as a native list of maps
+// (L of M: menuItemId S, quantity N, price N, totalPrice N) read and written field by field with no JSON
+// step. Both forms are always read; changed items are written natively and untouched ones as read, and
+// the mapper's OrderItemsAttributeTransformer then applies app.order.items.write-format. Rolling out native
+// items takes two deploys: first every node reads both while still writing JSON, then write-format=native
+// (and the migration). Reads are lazy (see LazyOrderItemList): nothing is decoded unless the items are
+// actually used.
+public class OrderItemListConverter implements DynamoDBTypeConverter<AttributeValue, List<OrderItem>> {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final String MENU_ITEM_ID = "menuItemId";
+    private static final String QUANTITY = "quantity";
+    private static final String PRICE = "price";
+    private static final String TOTAL_PRICE = "totalPrice";
+
+    @Override
+    public AttributeValue convert(List<OrderItem> items) {
+        if (items instanceof LazyOrderItemList lazy && lazy.isUndecoded()) {
+            return lazy.source();
+        }
+        return encode(items);
+    }
+
     @Override
-    public String convert(List<OrderItem> items) {
+    public List<OrderItem> unconvert(AttributeValue value) {
+        return new LazyOrderItemList(value);
+    }
+
+    public static AttributeValue encode(List<OrderItem> items) {
+        List<AttributeValue> list = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            Map<String, AttributeValue> map = new HashMap<>(8);
+            if (item.getMenuItemId() != null) {
+                map.put(MENU_ITEM_ID, new AttributeValue().withS(item.getMenuItemId()));
+            }
+            if (item.getQuantity() != null) {
+                map.put(QUANTITY, new AttributeValue().withN(item.getQuantity().toString()));
+            }
+            if (item.getPrice() != null) {
+                map.put(PRICE, new AttributeValue().withN(item.getPrice().toString()));
+            }
+            if (item.getTotalPrice() != null) {
+                map.put(TOTAL_PRICE, new AttributeValue().withN(item.getTotalPrice().toString()));
+            }
+            list.add(new AttributeValue().withM(map));
+        }
+        return new AttributeValue().withL(list);
+    }
+
+    public static List<OrderItem> decode(AttributeValue value) {
+        if (value.getS() != null) {
+            return decodeLegacyJson(value.getS());
+        }
+        List<AttributeValue> list = value.getL();
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<OrderItem> items = new ArrayList<>(list.size());
+        for (AttributeValue element : list) {
+            Map<String, AttributeValue> map = element.getM();
+            OrderItem item = new OrderItem();
+            AttributeValue menuItemId = map.get(MENU_ITEM_ID);
+            if (menuItemId != null) {
+                item.setMenuItemId(menuItemId.getS());
+            }
+            AttributeValue quantity = map.get(QUANTITY);
+            if (quantity != null) {
+                item.setQuantity(Integer.valueOf(quantity.getN()));
+            }
+            AttributeValue price = map.get(PRICE);
+            if (price != null) {
+                item.setPrice(Double.valueOf(price.getN()));
+            }
+            AttributeValue totalPrice = map.get(TOTAL_PRICE);
+            if (totalPrice != null) {
+                item.setTotalPrice(Double.valueOf(totalPrice.getN()));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    // True for items still stored in the pre-native JSON string form
+    public static boolean isLegacy(AttributeValue value) {
+        return value != null && value.getS() != null;
+    }
+
+    public static AttributeValue encodeLegacyJson(List<OrderItem> items) {
         try {
-            return objectMapper.writeValueAsString(items);
+            return new AttributeValue().withS(objectMapper.writeValueAsString(items));
         } catch (Exception e) {
             throw new RuntimeException("Failed to convert OrderItem list to JSON", e);
         }
     }
 
-    @Override
-    public List<OrderItem> unconvert(String json) {
+    private static List<OrderItem> decodeLegacyJson(String json) {
         try {
             return objectMapper.readValue(json, new TypeReference<List<OrderItem>>() {});
         } catch (Exception e) {
@@ -29,4 +115,3 @@ public class OrderItemListConverter implements DynamoDBTypeConverter<String, Lis
         }
     }
 }
-
@@ -0,0 +1,66 @@
+package com.phyo.food_management_system.util;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeTransformer;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.model.OrderItem;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Puts Order.items into app.order.items.write-format on every write of the mapper it belongs to (see
+// DynamoDbConfig). OrderItemListConverter cannot: the mapper creates converters itself and offers no way
+// to configure them. Items already in the write format (new ones, or unread ones written back as read)
+// pass through untouched, items in the other form are re-encoded. Reads are left to the converter.
+public class OrderItemsAttributeTransformer implements AttributeTransformer {
+
+    public enum WriteFormat {
+        JSON, NATIVE
+    }
+
+    private static final String ITEMS = "items";
+
+    private final WriteFormat writeFormat;
+
+    public OrderItemsAttributeTransformer(WriteFormat writeFormat) {
+        this.writeFormat = writeFormat;
+    }
+
+    public WriteFormat getWriteFormat() {
+        return writeFormat;
+    }
+
+    @Override
+    public Map<String, AttributeValue> transform(Parameters<?> parameters) {
+        if (parameters.getModelClass() != Order.class) {
+            return parameters.getAttributeValues();
+        }
+        return toWriteFormat(parameters.getAttributeValues());
+    }
+
+    @Override
+    public Map<String, AttributeValue> untransform(Parameters<?> parameters) {
+        return parameters.getAttributeValues();
+    }
+
+    // An order item as converted by the mapper; also for callers that convert through the table model,
+    // which does not run the transformer
+    public Map<String, AttributeValue> toWriteFormat(Map<String, AttributeValue> item) {
+        AttributeValue items = item.get(ITEMS);
+        if (items == null || (items.getS() == null && items.getL() == null)) {
+            return item;
+        }
+        boolean writeJson = writeFormat == WriteFormat.JSON;
+        if (OrderItemListConverter.isLegacy(items) == writeJson) {
+            return item;
+        }
+
+        List<OrderItem> decoded = OrderItemListConverter.decode(items);
+        Map<String, AttributeValue> transformed = new HashMap<>(item);
+        transformed.put(ITEMS, writeJson
+                ? OrderItemListConverter.encodeLegacyJson(decoded)
+                : OrderItemListConverter.encode(decoded));
+        return transformed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.phyo.food_management_system.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phyo.food_management_system.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Encodes a DynamoDB LastEvaluatedKey as an opaque, URL-safe page token and back.
+// Only S and N key attributes are supported, which covers every table and index key we have.
+public final class PageTokenCodec {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PageTokenCodec() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> flat = new LinkedHashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> {
+            if (value.getS() != null) {
+                flat.put(name, "S:" + value.getS());
+            } else if (value.getN() != null) {
+                flat.put(name, "N:" + value.getN());
+            } else {
+                throw new IllegalArgumentException("Unsupported key attribute type for " + name);
+            }
+        });
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(flat));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode page token", e);
+        }
+    }
+
+    public static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            Map<String, String> flat = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8),
+                    new TypeReference<Map<String, String>>() {});
+
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            flat.forEach((name, value) -> {
+                if (value.startsWith("S:")) {
+                    key.put(name, new AttributeValue().withS(value.substring(2)));
+                } else if (value.startsWith("N:")) {
+                    key.put(name, new AttributeValue().withN(value.substring(2)));
+                } else {
+                    throw new IllegalArgumentException("Unsupported key attribute type for " + name);
+                }
+            });
+            return key;
+        } catch (Exception e) {
+            throw new InvalidPageTokenException(token);
+        }
+    }
+}
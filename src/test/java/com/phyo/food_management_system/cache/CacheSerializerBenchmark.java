@@ -0,0 +1,125 @@
+package com.phyo.food_management_system.cache;
+
+import com.phyo.food_management_system.cache.CompressingRedisSerializer.Algorithm;
+import com.phyo.food_management_system.dto.response.MenuResponseDto;
+import com.phyo.food_management_system.dto.response.OrderItemResponseDto;
+import com.phyo.food_management_system.dto.response.OrderResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Bytes per entry and encode/decode time of the Redis cache serializers for the values the caches
+// actually hold: a user's order list ("orders") and a restaurant menu ("menuItems").
+// Not a surefire test; run main() from the IDE, or after mvn test-compile with
+// java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main CacheSerializerBenchmark
+// The entry sizes are printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "json-gzip", "smile", "smile-lz4"})
+    public String serializer;
+
+    @Param({"userOrders", "restaurantMenu"})
+    public String payload;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        redisSerializer = switch (serializer) {
+            case "json" -> new GenericJackson2JsonRedisSerializer();
+            case "json-gzip" -> new CompressingRedisSerializer(new GenericJackson2JsonRedisSerializer(), Algorithm.GZIP, 1024);
+            case "smile" -> new SmileRedisSerializer();
+            case "smile-lz4" -> new CompressingRedisSerializer(new SmileRedisSerializer(), Algorithm.LZ4, 1024);
+            default -> throw new IllegalArgumentException(serializer);
+        };
+        value = "userOrders".equals(payload) ? userOrders(20, 4) : restaurantMenu(40);
+        encoded = redisSerializer.serialize(value);
+
+        if (!value.equals(redisSerializer.deserialize(encoded))) {
+            throw new IllegalStateException(serializer + " does not round-trip " + payload);
+        }
+        System.out.printf("%n%s / %s: %d bytes per entry%n", serializer, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return redisSerializer.deserialize(encoded);
+    }
+
+    private static List<OrderResponseDto> userOrders(int orders, int itemsPerOrder) {
+        List<OrderResponseDto> result = new ArrayList<>();
+        String userId = UUID.randomUUID().toString();
+        for (int i = 0; i < orders; i++) {
+            OrderResponseDto order = new OrderResponseDto();
+            order.setOrderId(UUID.randomUUID().toString());
+            order.setUserId(userId);
+            order.setUserName("Phyo Zaw Oo");
+            order.setRestaurantId(UUID.randomUUID().toString());
+            order.setRestaurantName("Restaurant " + i);
+            order.setStatus(i % 3 == 0 ? "DELIVERED" : "PLACED");
+            order.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusHours(i));
+            order.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 12, 30).plusHours(i));
+
+            List<OrderItemResponseDto> items = new ArrayList<>();
+            double total = 0;
+            for (int j = 0; j < itemsPerOrder; j++) {
+                OrderItemResponseDto item = new OrderItemResponseDto();
+                item.setMenuItemId(UUID.randomUUID().toString());
+                item.setQuantity(j + 1);
+                item.setPrice(4.5 + j);
+                item.setTotalPrice(item.getPrice() * item.getQuantity());
+                total += item.getTotalPrice();
+                items.add(item);
+            }
+            order.setItems(items);
+            order.setTotalPrice(total);
+            result.add(order);
+        }
+        return result;
+    }
+
+    private static List<MenuResponseDto> restaurantMenu(int items) {
+        List<MenuResponseDto> result = new ArrayList<>();
+        String restaurantId = UUID.randomUUID().toString();
+        for (int i = 0; i < items; i++) {
+            result.add(new MenuResponseDto(UUID.randomUUID().toString(), restaurantId, "Dish " + i,
+                    "Rice noodles with chicken, fresh herbs and a spicy tamarind sauce", 6.0 + i % 7, 1L));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CacheSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.phyo.food_management_system.util.OrderItemsAttributeTransformer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Base of the tests that run against DynamoDB Local, e.g. mvn test -Daws.dynamodb.end-point.url=http://localhost:8000;
+// without that property they are skipped. Subclasses share the client and mapper (set up as in DynamoDbConfig,
+// writing order items in the default json format) and create the tables they use.
+@DynamoDbLocalTestSupport.RequiresDynamoDbLocal
+public abstract class DynamoDbLocalTestSupport {
+
+    static final String ENDPOINT_PROPERTY = "aws.dynamodb.end-point.url";
+
+    // JUnit does not inherit class-level conditions by itself
+    @Inherited
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @EnabledIfSystemProperty(named = ENDPOINT_PROPERTY, matches = ".+")
+    @interface RequiresDynamoDbLocal {
+    }
+
+    protected static AmazonDynamoDB amazonDynamoDB;
+    protected static DynamoDBMapper dynamoDBMapper;
+    protected static final OrderItemsAttributeTransformer orderItemsAttributeTransformer =
+            new OrderItemsAttributeTransformer(OrderItemsAttributeTransformer.WriteFormat.JSON);
+
+    @BeforeAll
+    static void connect() {
+        amazonDynamoDB = AmazonDynamoDBClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(
+                        System.getProperty(ENDPOINT_PROPERTY), "us-east-1"))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("local", "local")))
+                .build();
+        dynamoDBMapper = new DynamoDBMapper(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT,
+                orderItemsAttributeTransformer);
+    }
+
+    // The model's table with all of its indexes (projecting everything), unless it already exists
+    protected static void createTableIfNotExists(Class<?> type) throws InterruptedException {
+        CreateTableRequest request = dynamoDBMapper.generateCreateTableRequest(type)
+                .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        if (request.getGlobalSecondaryIndexes() != null) {
+            request.getGlobalSecondaryIndexes().forEach(index -> index
+                    .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L))
+                    .withProjection(new Projection().withProjectionType(ProjectionType.ALL)));
+        }
+        TableUtils.createTableIfNotExists(amazonDynamoDB, request);
+        TableUtils.waitUntilActive(amazonDynamoDB, request.getTableName());
+    }
+}
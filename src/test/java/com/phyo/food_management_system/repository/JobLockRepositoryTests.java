@@ -0,0 +1,60 @@
+package com.phyo.food_management_system.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobLockRepositoryTests extends DynamoDbLocalTestSupport {
+
+    private static JobLockRepository jobLockRepository;
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        jobLockRepository = new JobLockRepository(dynamoDBMapper, amazonDynamoDB);
+        jobLockRepository.createTableIfNotExists();
+    }
+
+    @Test
+    void onlyOneNodeHoldsAnActiveLease() {
+        String lock = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-a", now + 60_000, now));
+        assertFalse(jobLockRepository.tryAcquire(lock, "node-b", now + 60_000, now));
+        // the holder may re-acquire its own lease
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-a", now + 60_000, now));
+    }
+
+    @Test
+    void expiredLeaseFailsOver() {
+        String lock = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-a", now - 1, now - 60_000));
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-b", now + 60_000, now));
+        assertEquals("node-b", jobLockRepository.getLock(lock).orElseThrow().getOwner());
+
+        // the old holder can no longer heartbeat or release
+        assertFalse(jobLockRepository.extend(lock, "node-a", now + 60_000));
+        assertFalse(jobLockRepository.release(lock, "node-a"));
+    }
+
+    @Test
+    void ownerCanExtendAndRelease() {
+        String lock = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-a", now + 1_000, now));
+        assertTrue(jobLockRepository.extend(lock, "node-a", now + 120_000));
+        assertEquals(now + 120_000, jobLockRepository.getLock(lock).orElseThrow().getLeaseUntil());
+
+        assertTrue(jobLockRepository.release(lock, "node-a"));
+        assertTrue(jobLockRepository.getLock(lock).isEmpty());
+        assertTrue(jobLockRepository.tryAcquire(lock, "node-b", now + 60_000, now));
+    }
+}
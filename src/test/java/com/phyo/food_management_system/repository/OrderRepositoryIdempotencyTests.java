@@ -0,0 +1,148 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.phyo.food_management_system.model.IdempotencyRecord;
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.model.OrderStatus;
+import com.phyo.food_management_system.util.OrderItemListConverter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderRepositoryIdempotencyTests extends DynamoDbLocalTestSupport {
+
+    private static OrderRepository orderRepository;
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        createTableIfNotExists(Order.class);
+        createTableIfNotExists(IdempotencyRecord.class);
+        orderRepository = new OrderRepository(dynamoDBMapper, amazonDynamoDB, null, orderItemsAttributeTransformer);
+    }
+
+    @Test
+    void firstPlacementWritesTheOrderAndTheKey() {
+        String key = UUID.randomUUID().toString();
+        Order order = newOrder();
+
+        assertTrue(orderRepository.placeOrder(order, newRecord(key, 3600)));
+
+        IdempotencyRecord stored = orderRepository.getIdempotencyRecord(key).orElseThrow();
+        assertEquals(order.getOrderId(), stored.getOrderId());
+        assertEquals(OrderStatus.PLACED, stored.getOrderStatus());
+        assertEquals(1L, stored.getOrderVersion());
+        assertEquals(OrderStatus.PLACED, orderRepository.getOrderByOrderId(order.getOrderId()).orElseThrow().getStatus());
+        // written through the table model, which skips the mapper's transformer: still in the configured format
+        assertTrue(OrderItemListConverter.isLegacy(amazonDynamoDB.getItem(Order.TABLE_NAME,
+                Map.of("order_id", new AttributeValue().withS(order.getOrderId()))).getItem().get("items")));
+    }
+
+    @Test
+    void takenKeyWritesNothingAndStillPointsAtTheFirstOrder() {
+        String key = UUID.randomUUID().toString();
+        Order first = newOrder();
+        Order retry = newOrder();
+
+        assertTrue(orderRepository.placeOrder(first, newRecord(key, 3600)));
+        assertFalse(orderRepository.placeOrder(retry, newRecord(key, 3600)));
+
+        assertEquals(first.getOrderId(), orderRepository.getIdempotencyRecord(key).orElseThrow().getOrderId());
+        assertTrue(orderRepository.getOrderByOrderId(retry.getOrderId()).isEmpty());
+    }
+
+    @Test
+    void expiredKeyCanBeReused() {
+        String key = UUID.randomUUID().toString();
+        Order first = newOrder();
+        Order later = newOrder();
+
+        assertTrue(orderRepository.placeOrder(first, newRecord(key, -60)));
+        assertTrue(orderRepository.placeOrder(later, newRecord(key, 3600)));
+
+        assertEquals(later.getOrderId(), orderRepository.getIdempotencyRecord(key).orElseThrow().getOrderId());
+    }
+
+    @Test
+    void transactionConflictOnTheKeyIsRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        OrderRepository conflicting = new OrderRepository(dynamoDBMapper, conflictingClient(2, calls), null,
+                orderItemsAttributeTransformer);
+        String key = UUID.randomUUID().toString();
+        Order order = newOrder();
+
+        assertTrue(conflicting.placeOrder(order, newRecord(key, 3600)));
+
+        assertEquals(3, calls.get());
+        assertEquals(order.getOrderId(), orderRepository.getIdempotencyRecord(key).orElseThrow().getOrderId());
+    }
+
+    @Test
+    void persistentTransactionConflictGivesUp() {
+        AtomicInteger calls = new AtomicInteger();
+        OrderRepository conflicting = new OrderRepository(dynamoDBMapper, conflictingClient(Integer.MAX_VALUE, calls), null,
+                orderItemsAttributeTransformer);
+        String key = UUID.randomUUID().toString();
+
+        assertThrows(TransactionCanceledException.class,
+                () -> conflicting.placeOrder(newOrder(), newRecord(key, 3600)));
+
+        assertEquals(4, calls.get());
+        assertTrue(orderRepository.getIdempotencyRecord(key).isEmpty());
+    }
+
+    // DynamoDB Local never reports TransactionConflict: cancel the first `conflicts` transactions on the key
+    private static AmazonDynamoDB conflictingClient(int conflicts, AtomicInteger calls) {
+        return (AmazonDynamoDB) Proxy.newProxyInstance(AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[]{AmazonDynamoDB.class}, (proxy, method, args) -> {
+                    if (args != null && args.length == 1 && args[0] instanceof TransactWriteItemsRequest
+                            && calls.incrementAndGet() <= conflicts) {
+                        TransactionCanceledException e = new TransactionCanceledException("Transaction cancelled");
+                        e.setCancellationReasons(List.of(
+                                new CancellationReason().withCode("None"),
+                                new CancellationReason().withCode("TransactionConflict")));
+                        throw e;
+                    }
+                    try {
+                        return method.invoke(amazonDynamoDB, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Order newOrder() {
+        Order order = new Order();
+        order.setUserId("user-1");
+        order.setRestaurantId("restaurant-1");
+        order.setStatus(OrderStatus.PLACED);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setItems(List.of());
+        order.setTotalPrice(12.5);
+        return order;
+    }
+
+    private static IdempotencyRecord newRecord(String key, long expiresInSeconds) {
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setIdempotencyKey(key);
+        idempotencyRecord.setRequestHash("hash");
+        idempotencyRecord.setExpiresAt(Instant.now().getEpochSecond() + expiresInSeconds);
+        return idempotencyRecord;
+    }
+}
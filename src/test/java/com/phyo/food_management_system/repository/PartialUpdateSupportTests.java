@@ -0,0 +1,152 @@
+package com.phyo.food_management_system.repository;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.phyo.food_management_system.model.Restaurant;
+import com.phyo.food_management_system.model.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartialUpdateSupportTests extends DynamoDbLocalTestSupport {
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        createTableIfNotExists(Restaurant.class);
+        createTableIfNotExists(User.class);
+    }
+
+    @Test
+    void noChangesOnAVersionedModelOnlyBumpsTheVersion() {
+        Restaurant stored = saveRestaurant("Noodle Bar");
+
+        PatchResult<Restaurant> result = patchRestaurant(restaurantChanges(stored.getRestaurantId()), Map.of());
+
+        assertTrue(result.applied());
+        assertEquals(1L, result.before().getVersion());
+        assertEquals(2L, result.after().getVersion());
+        Restaurant reloaded = dynamoDBMapper.load(Restaurant.class, stored.getRestaurantId());
+        assertEquals("Noodle Bar", reloaded.getName());
+        assertEquals(2L, reloaded.getVersion());
+    }
+
+    @Test
+    void noChangesOnAModelWithoutVersionLeavesTheItemAsIs() {
+        User stored = saveUser("ann@example.com");
+
+        PatchResult<User> result = patchUser(userChanges(stored.getUserId()), Map.of());
+
+        assertTrue(result.applied());
+        assertEquals("ann@example.com", result.after().getEmail());
+        assertEquals("ann", dynamoDBMapper.load(User.class, stored.getUserId()).getUsername());
+    }
+
+    @Test
+    void onlyTheGivenFieldsOfAModelWithoutVersionAreWritten() {
+        User stored = saveUser("bob@example.com");
+        User changes = userChanges(stored.getUserId());
+        changes.setUsername("bobby");
+
+        PatchResult<User> result = patchUser(changes, Map.of());
+
+        assertEquals("bob", result.before().getUsername());
+        assertEquals("bobby", result.after().getUsername());
+        User reloaded = dynamoDBMapper.load(User.class, stored.getUserId());
+        assertEquals("bobby", reloaded.getUsername());
+        assertEquals("bob@example.com", reloaded.getEmail());
+        assertEquals("secret", reloaded.getPassword());
+    }
+
+    @Test
+    void expectedValuesCombineWithTheVersionBump() {
+        Restaurant stored = saveRestaurant("Taco Stand");
+        Restaurant changes = restaurantChanges(stored.getRestaurantId());
+        changes.setName("Taco Truck");
+
+        PatchResult<Restaurant> result = patchRestaurant(changes, VersionedWriteSupport.expectedVersion(1L));
+
+        assertTrue(result.applied());
+        assertEquals("Taco Truck", result.after().getName());
+        assertEquals(2L, result.after().getVersion());
+
+        // the same expected version again is now stale: nothing is written, before is the stored item
+        Restaurant again = restaurantChanges(stored.getRestaurantId());
+        again.setName("Taco Van");
+        PatchResult<Restaurant> stale = patchRestaurant(again, VersionedWriteSupport.expectedVersion(1L));
+
+        assertFalse(stale.applied());
+        assertNull(stale.after());
+        assertEquals("Taco Truck", stale.before().getName());
+        assertEquals(2L, stale.before().getVersion());
+        assertEquals("Taco Truck", dynamoDBMapper.load(Restaurant.class, stored.getRestaurantId()).getName());
+    }
+
+    @Test
+    void failedExpectedValueOnAModelWithoutVersionReturnsTheStoredItem() {
+        User stored = saveUser("cat@example.com");
+        User changes = userChanges(stored.getUserId());
+        changes.setEmail("kit@example.com");
+
+        PatchResult<User> result = patchUser(changes,
+                Map.of("email", new AttributeValue().withS("kit@example.com")));
+
+        assertFalse(result.applied());
+        assertEquals("cat@example.com", result.before().getEmail());
+        assertEquals("cat@example.com", dynamoDBMapper.load(User.class, stored.getUserId()).getEmail());
+    }
+
+    @Test
+    void missingItemIsNotFound() {
+        Restaurant changes = restaurantChanges(UUID.randomUUID().toString());
+        changes.setName("Nowhere");
+
+        assertThrows(IllegalStateException.class, () -> patchRestaurant(changes, Map.of()));
+        assertNull(dynamoDBMapper.load(Restaurant.class, changes.getRestaurantId()));
+    }
+
+    private static PatchResult<Restaurant> patchRestaurant(Restaurant changes, Map<String, AttributeValue> expected) {
+        return PartialUpdateSupport.patch(amazonDynamoDB, dynamoDBMapper, Restaurant.class, changes, expected,
+                () -> new IllegalStateException("not found"));
+    }
+
+    private static PatchResult<User> patchUser(User changes, Map<String, AttributeValue> expected) {
+        return PartialUpdateSupport.patch(amazonDynamoDB, dynamoDBMapper, User.class, changes, expected,
+                () -> new IllegalStateException("not found"));
+    }
+
+    private static Restaurant saveRestaurant(String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName(name);
+        restaurant.setAddress("1 Main St");
+        dynamoDBMapper.save(restaurant);
+        return restaurant;
+    }
+
+    private static User saveUser(String email) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("secret");
+        dynamoDBMapper.save(user);
+        return user;
+    }
+
+    private static Restaurant restaurantChanges(String restaurantId) {
+        Restaurant changes = new Restaurant();
+        changes.setRestaurantId(restaurantId);
+        return changes;
+    }
+
+    private static User userChanges(String userId) {
+        User changes = new User();
+        changes.setUserId(userId);
+        return changes;
+    }
+}
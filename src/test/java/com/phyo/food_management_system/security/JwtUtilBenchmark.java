@@ -0,0 +1,72 @@
+package com.phyo.food_management_system.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request JWT cost in JwtFilter: the old path (three parser builds and signature checks)
+// against JwtUtil.parseAndValidate (one cached parser, one check).
+// Not a surefire test; run main() from the IDE, or after mvn test-compile with
+// java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main JwtUtilBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final Key key = Keys.hmacShaKeyFor(
+            "your-very-secure-and-long-secret-key-that-is-at-least-256-bits-long".getBytes(StandardCharsets.UTF_8));
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(new User("user@example.com", "secret",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    // What JwtFilter used to do: one parse for the username, then two more to validate username and expiry
+    @Benchmark
+    public void legacyThreeParses(Blackhole blackhole) {
+        String username = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        String again = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        boolean expired = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getExpiration().before(new Date());
+        blackhole.consume(username.equals(again) && !expired);
+    }
+
+    @Benchmark
+    public JwtClaims parseAndValidate() {
+        return jwtUtil.parseAndValidate(token);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
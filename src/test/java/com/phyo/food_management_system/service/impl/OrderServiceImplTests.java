@@ -0,0 +1,132 @@
+package com.phyo.food_management_system.service.impl;
+
+import com.phyo.food_management_system.dto.request.OrderRequestDto;
+import com.phyo.food_management_system.exception.IdempotencyKeyReusedException;
+import com.phyo.food_management_system.model.IdempotencyRecord;
+import com.phyo.food_management_system.model.Menu;
+import com.phyo.food_management_system.model.Order;
+import com.phyo.food_management_system.model.OrderStatus;
+import com.phyo.food_management_system.model.Restaurant;
+import com.phyo.food_management_system.model.Role;
+import com.phyo.food_management_system.model.User;
+import com.phyo.food_management_system.repository.DynamoDbLocalTestSupport;
+import com.phyo.food_management_system.repository.MenuRepository;
+import com.phyo.food_management_system.repository.OrderRepository;
+import com.phyo.food_management_system.repository.RestaurantRepository;
+import com.phyo.food_management_system.repository.UserRepository;
+import com.phyo.food_management_system.security.CustomUserDetails;
+import com.phyo.food_management_system.service.PlacedOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Replays are resolved from the idempotency record: the replay cache is switched off
+class OrderServiceImplTests extends DynamoDbLocalTestSupport {
+
+    private static OrderRepository orderRepository;
+    private static OrderServiceImpl orderService;
+    private static User user;
+    private static Restaurant restaurant;
+    private static Menu burger;
+    private static Menu fries;
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        createTableIfNotExists(Order.class);
+        createTableIfNotExists(IdempotencyRecord.class);
+        createTableIfNotExists(Menu.class);
+        createTableIfNotExists(User.class);
+        createTableIfNotExists(Restaurant.class);
+
+        orderRepository = new OrderRepository(dynamoDBMapper, amazonDynamoDB, null, orderItemsAttributeTransformer);
+        orderService = new OrderServiceImpl(orderRepository,
+                new MenuRepository(dynamoDBMapper, amazonDynamoDB),
+                new OrderResponseAssembler(new UserRepository(dynamoDBMapper, amazonDynamoDB, null),
+                        new RestaurantRepository(dynamoDBMapper, amazonDynamoDB, null), Duration.ofSeconds(30), 100),
+                new NoOpCacheManager(),
+                Duration.ofHours(24));
+
+        user = new User();
+        user.setUsername("ann");
+        user.setEmail("ann@example.com");
+        user.setPassword("secret");
+        user.setRole(Role.USER);
+        dynamoDBMapper.save(user);
+
+        restaurant = new Restaurant();
+        restaurant.setName("Noodle Bar");
+        dynamoDBMapper.save(restaurant);
+
+        burger = saveMenu("Burger", 8.0);
+        fries = saveMenu("Fries", 3.5);
+    }
+
+    @BeforeEach
+    void logIn() {
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void logOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sameKeyAndCartReplaysTheOrderAsPlaced() {
+        String key = UUID.randomUUID().toString();
+
+        PlacedOrder first = orderService.placeOrder(cart(burger, 2), key);
+        orderRepository.updateOrderStatus(first.order().getOrderId(), OrderStatus.PREPARING, null);
+        PlacedOrder replay = orderService.placeOrder(cart(burger, 2), key);
+
+        assertFalse(first.replayed());
+        assertTrue(replay.replayed());
+        assertEquals(first.order().getOrderId(), replay.order().getOrderId());
+        assertEquals(OrderStatus.PLACED.name(), replay.order().getStatus());
+        assertEquals(1L, replay.order().getVersion());
+        assertEquals(16.0, replay.order().getTotalPrice());
+    }
+
+    @Test
+    void sameKeyWithAnotherCartIsRejected() {
+        String key = UUID.randomUUID().toString();
+
+        orderService.placeOrder(cart(burger, 1), key);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> orderService.placeOrder(cart(fries, 1), key));
+    }
+
+    private static OrderRequestDto cart(Menu menu, int quantity) {
+        OrderRequestDto.OrderItemRequestDto item = new OrderRequestDto.OrderItemRequestDto();
+        item.setMenuItemId(menu.getMenuId());
+        item.setQuantity(quantity);
+        OrderRequestDto request = new OrderRequestDto();
+        request.setRestaurantId(restaurant.getRestaurantId());
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private static Menu saveMenu(String name, double price) {
+        Menu menu = new Menu();
+        menu.setRestaurantId(restaurant.getRestaurantId());
+        menu.setName(name);
+        menu.setPrice(price);
+        dynamoDBMapper.save(menu);
+        return menu;
+    }
+}
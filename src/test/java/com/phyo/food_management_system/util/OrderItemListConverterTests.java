@@ -0,0 +1,94 @@
+package com.phyo.food_management_system.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.phyo.food_management_system.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderItemListConverterTests {
+
+    private final OrderItemListConverter converter = new OrderItemListConverter();
+
+    @Test
+    void nativeFormatRoundTrips() {
+        List<OrderItem> items = List.of(item("m1", 2, 1.5, 3.0), item("m2", 1, 1.0E10, 1.0E10));
+
+        AttributeValue encoded = OrderItemListConverter.encode(items);
+
+        assertEquals(2, encoded.getL().size());
+        assertEquals("m1", encoded.getL().get(0).getM().get("menuItemId").getS());
+        assertEquals("2", encoded.getL().get(0).getM().get("quantity").getN());
+        assertEquals(items, OrderItemListConverter.decode(encoded));
+    }
+
+    @Test
+    void nullFieldsAreOmittedAndReadBackAsNull() {
+        OrderItem item = item("m1", null, null, null);
+
+        AttributeValue encoded = OrderItemListConverter.encode(List.of(item));
+
+        assertEquals(Map.of("menuItemId", new AttributeValue().withS("m1")), encoded.getL().get(0).getM());
+        OrderItem decoded = OrderItemListConverter.decode(encoded).get(0);
+        assertEquals("m1", decoded.getMenuItemId());
+        assertNull(decoded.getQuantity());
+        assertNull(decoded.getPrice());
+        assertNull(decoded.getTotalPrice());
+    }
+
+    @Test
+    void legacyJsonIsRead() {
+        AttributeValue legacy = new AttributeValue().withS(
+                "[{\"menuItemId\":\"m1\",\"quantity\":2,\"price\":1.5,\"totalPrice\":3.0}]");
+
+        assertTrue(OrderItemListConverter.isLegacy(legacy));
+        assertEquals(List.of(item("m1", 2, 1.5, 3.0)), converter.unconvert(legacy));
+    }
+
+    @Test
+    void changedItemsAreWrittenNatively() {
+        List<OrderItem> items = List.of(item("m1", 2, 1.5, 3.0));
+
+        AttributeValue written = converter.convert(items);
+
+        assertNotNull(written.getL());
+        assertEquals(items, converter.unconvert(written));
+    }
+
+    @Test
+    void unreadItemsAreWrittenBackAsRead() {
+        AttributeValue legacy = OrderItemListConverter.encodeLegacyJson(List.of(item("m1", 2, 1.5, 3.0)));
+
+        List<OrderItem> read = converter.unconvert(legacy);
+
+        assertTrue(((LazyOrderItemList) read).isUndecoded());
+        assertSame(legacy, converter.convert(read));
+    }
+
+    @Test
+    void itemsAreDecodedOnFirstAccessOnly() {
+        LazyOrderItemList read = (LazyOrderItemList) converter.unconvert(
+                OrderItemListConverter.encode(List.of(item("m1", 2, 1.5, 3.0))));
+
+        assertTrue(read.isUndecoded());
+        assertEquals("m1", read.get(0).getMenuItemId());
+        assertFalse(read.isUndecoded());
+    }
+
+    private static OrderItem item(String menuItemId, Integer quantity, Double price, Double totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setMenuItemId(menuItemId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        item.setTotalPrice(totalPrice);
+        return item;
+    }
+}
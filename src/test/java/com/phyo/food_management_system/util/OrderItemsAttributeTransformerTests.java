@@ -0,0 +1,65 @@
+package com.phyo.food_management_system.util;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.phyo.food_management_system.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderItemsAttributeTransformerTests {
+
+    private static final List<OrderItem> ITEMS = List.of(item("m1", 2, 1.5, 3.0));
+
+    private final OrderItemsAttributeTransformer json =
+            new OrderItemsAttributeTransformer(OrderItemsAttributeTransformer.WriteFormat.JSON);
+    private final OrderItemsAttributeTransformer nativeItems =
+            new OrderItemsAttributeTransformer(OrderItemsAttributeTransformer.WriteFormat.NATIVE);
+
+    @Test
+    void jsonFormatReencodesNativeItems() {
+        Map<String, AttributeValue> written = json.toWriteFormat(order(OrderItemListConverter.encode(ITEMS)));
+
+        assertTrue(OrderItemListConverter.isLegacy(written.get("items")));
+        assertEquals(ITEMS, OrderItemListConverter.decode(written.get("items")));
+        assertEquals("o1", written.get("order_id").getS());
+    }
+
+    @Test
+    void nativeFormatReencodesLegacyItems() {
+        Map<String, AttributeValue> written =
+                nativeItems.toWriteFormat(order(OrderItemListConverter.encodeLegacyJson(ITEMS)));
+
+        assertFalse(OrderItemListConverter.isLegacy(written.get("items")));
+        assertEquals(ITEMS, OrderItemListConverter.decode(written.get("items")));
+    }
+
+    @Test
+    void itemsInTheWriteFormatPassThrough() {
+        Map<String, AttributeValue> legacy = order(OrderItemListConverter.encodeLegacyJson(ITEMS));
+        Map<String, AttributeValue> encoded = order(OrderItemListConverter.encode(ITEMS));
+        Map<String, AttributeValue> withoutItems = Map.of("order_id", new AttributeValue().withS("o1"));
+
+        assertSame(legacy, json.toWriteFormat(legacy));
+        assertSame(encoded, nativeItems.toWriteFormat(encoded));
+        assertSame(withoutItems, json.toWriteFormat(withoutItems));
+    }
+
+    private static Map<String, AttributeValue> order(AttributeValue items) {
+        return Map.of("order_id", new AttributeValue().withS("o1"), "items", items);
+    }
+
+    private static OrderItem item(String menuItemId, Integer quantity, Double price, Double totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setMenuItemId(menuItemId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        item.setTotalPrice(totalPrice);
+        return item;
+    }
+}